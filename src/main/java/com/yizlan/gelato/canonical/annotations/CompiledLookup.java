@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Type-level annotation marking an enum which implements {@code UnaryEnum}, {@code BiEnum} or {@code TerEnum},
+ * whose lookup table should be generated at compile time.
+ * <p>
+ * The table is generated by {@code com.yizlan.gelato.canonical.processor.EnumLookupProcessor} when the processor
+ * is enabled, from the literal values passed to the constructors of the elements. Without the processor, or when
+ * the values are not literals, the enum is still looked up through the table built at runtime.
+ *
+ * @author Zen Gershon
+ * @since 2.8
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CompiledLookup {
+
+    /**
+     * Whether elements may share the same value, otherwise the compilation fails on duplicate values,
+     * and warns on string values which are only equal ignoring case.
+     *
+     * @return {@code true} if duplicate values are allowed, default to false
+     */
+    boolean allowDuplicates() default false;
+
+}
@@ -25,8 +25,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.BiFunction;
 import java.util.function.BinaryOperator;
+import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
 /**
@@ -109,4 +111,119 @@ public interface BiDictionary<T extends Comparable<T> & Serializable, U extends
                 );
     }
 
+    /**
+     * Convert dictionary to a compact, immutable map, which is sorted by code and retains an estimated 8 bytes per
+     * entry instead of about 40 bytes for the map of {@link #toMap(List)}, see {@link SortedArrayMap}. Like that map,
+     * it doesn't accept null names.
+     *
+     * @param biDictionaries A collection of classes or subclasses that implements {@link BiDictionary}.
+     *                       Note that null elements within the list are ignored.
+     * @param <T>            the type of the code field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U>            the type of the name field, should implement {@link Comparable} and {@link Serializable}
+     * @return An immutable Map whose keys are the code field, and whose values are the name field.
+     * If {@code biDictionaries} is null or empty, returns an empty Map.
+     * @throws IllegalArgumentException if duplicate keys are encountered.
+     * @throws NullPointerException if a name is null.
+     */
+    static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable> Map<T, U> toCompactMap(
+            List<? extends BiDictionary<T, U>> biDictionaries) {
+        if (biDictionaries == null || biDictionaries.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        return SortedArrayMap.of(biDictionaries, BiDictionary::getCode,
+                item -> Objects.requireNonNull(item.getName()));
+    }
+
+    /**
+     * Convert dictionary to a compact, immutable map, which is sorted by code and doesn't accept null names, see
+     * {@link #toCompactMap(List)}.
+     *
+     * @param biDictionaries A collection of classes or subclasses that implements {@link BiDictionary}.
+     *                       Note that null elements within the list are ignored.
+     * @param mergeFunction  a merge function, used to resolve collisions between values associated with the same
+     *                       key, applied in encounter order
+     * @param <T>            the type of the code field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U>            the type of the name field, should implement {@link Comparable} and {@link Serializable}
+     * @return An immutable Map whose keys are the code field, and whose values are the name field.
+     * If {@code biDictionaries} is null or empty, returns an empty Map.
+     * @throws NullPointerException if a name is null.
+     */
+    static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable> Map<T, U> toCompactMap(
+            List<? extends BiDictionary<T, U>> biDictionaries, BinaryOperator<U> mergeFunction) {
+        if (biDictionaries == null || biDictionaries.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        return SortedArrayMap.of(biDictionaries, BiDictionary::getCode,
+                item -> Objects.requireNonNull(item.getName()), mergeFunction);
+    }
+
+    /**
+     * Returns a {@code Collector} which collects dictionaries to a map, like {@link #toMap(List)}, for loaders
+     * streaming their rows rather than building a list. Iterators and spliterators can be collected through
+     * {@link java.util.stream.StreamSupport#stream(java.util.Spliterator, boolean)}.
+     *
+     * @param <T> the type of the code field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U> the type of the name field, should implement {@link Comparable} and {@link Serializable}
+     * @return A Collector which collects elements into a Map whose keys are the code field, and whose values are
+     * the name field. Null elements are ignored, and null names are not allowed.
+     * @throws IllegalArgumentException if duplicate keys are encountered, when the stream is collected.
+     */
+    static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable>
+            Collector<BiDictionary<T, U>, ?, Map<T, U>> collector() {
+        return DictionaryCollectors.toMap(BiDictionary::getCode, BiDictionary::getName, null);
+    }
+
+    /**
+     * Returns a {@code Collector} which collects dictionaries to a map, see {@link #collector()}.
+     *
+     * @param mergeFunction a merge function, used to resolve collisions between values associated with the same
+     *                      key, applied in encounter order
+     * @param <T>           the type of the code field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U>           the type of the name field, should implement {@link Comparable} and {@link Serializable}
+     * @return A Collector which collects elements into a Map whose keys are the code field, and whose values are
+     * the name field. Null elements are ignored, and null names are not allowed.
+     */
+    static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable>
+            Collector<BiDictionary<T, U>, ?, Map<T, U>> collector(BinaryOperator<U> mergeFunction) {
+        Objects.requireNonNull(mergeFunction, "Merge function cannot be null");
+        return DictionaryCollectors.toMap(BiDictionary::getCode, BiDictionary::getName, mergeFunction);
+    }
+
+    /**
+     * Returns a concurrent {@code Collector} which collects dictionaries to a {@link ConcurrentMap}. When the
+     * stream is parallel and unordered, all the threads accumulate into the same map instead of merging a map per
+     * thread.
+     *
+     * @param <T> the type of the code field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U> the type of the name field, should implement {@link Comparable} and {@link Serializable}
+     * @return A concurrent Collector which collects elements into a ConcurrentMap whose keys are the code field,
+     * and whose values are the name field. Null elements are ignored, and null codes and names are not
+     * allowed.
+     * @throws IllegalArgumentException if duplicate keys are encountered, when the stream is collected.
+     */
+    static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable>
+            Collector<BiDictionary<T, U>, ?, ConcurrentMap<T, U>> concurrentCollector() {
+        return DictionaryCollectors.toConcurrentMap(BiDictionary::getCode, BiDictionary::getName, null);
+    }
+
+    /**
+     * Returns a concurrent {@code Collector} which collects dictionaries to a {@link ConcurrentMap}, see
+     * {@link #concurrentCollector()}.
+     *
+     * @param mergeFunction a merge function, used to resolve collisions between values associated with the same
+     *                      key, applied in no particular order
+     * @param <T>           the type of the code field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U>           the type of the name field, should implement {@link Comparable} and {@link Serializable}
+     * @return A concurrent Collector which collects elements into a ConcurrentMap whose keys are the code field,
+     * and whose values are the name field. Null elements are ignored, and null codes and names are not
+     * allowed.
+     */
+    static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable>
+            Collector<BiDictionary<T, U>, ?, ConcurrentMap<T, U>> concurrentCollector(BinaryOperator<U> mergeFunction) {
+        Objects.requireNonNull(mergeFunction, "Merge function cannot be null");
+        return DictionaryCollectors.toConcurrentMap(BiDictionary::getCode, BiDictionary::getName, mergeFunction);
+    }
+
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.dictionary;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+/**
+ * The implementations of the dictionary collectors of {@link BiDictionary} and {@link TerDictionary}.
+ * <p>
+ * The collectors ignore null elements. Without a merge function, a duplicate key fails with an
+ * {@link IllegalArgumentException} like {@link BiDictionary#toMap(java.util.List)}, whichever thread or sub-stream
+ * finds it.
+ *
+ * @author Zen Gershon
+ * @since 2.8
+ */
+final class DictionaryCollectors {
+
+    private DictionaryCollectors() {
+        // to do nothing
+    }
+
+    /**
+     * Returns a collector to a {@link HashMap}, sub-streams of a parallel stream are collected to their own map
+     * and merged.
+     *
+     * @param keyMapper     a function to extract the key of an element
+     * @param valueMapper   a function to extract the value of an element, the value cannot be null
+     * @param mergeFunction a function to merge the values of the same key, null to fail on duplicate keys
+     * @param <E>           the type of the elements
+     * @param <K>           the type of the keys
+     * @param <V>           the type of the values
+     * @return the collector
+     */
+    static <E, K, V> Collector<E, ?, Map<K, V>> toMap(Function<? super E, ? extends K> keyMapper,
+                                                      Function<? super E, ? extends V> valueMapper,
+                                                      BinaryOperator<V> mergeFunction) {
+        return Collector.<E, Map<K, V>>of(
+                () -> new HashMap<>(16, 0.5f),
+                (map, element) -> {
+                    if (element != null) {
+                        put(map, keyMapper.apply(element), valueMapper.apply(element), mergeFunction);
+                    }
+                },
+                (map1, map2) -> {
+                    // the smaller map is merged into the larger one, the values of map1 come first in encounter order
+                    if (map1.size() >= map2.size()) {
+                        map2.forEach((key, value) -> put(map1, key, value, mergeFunction));
+                        return map1;
+                    }
+                    map1.forEach((key, value) -> putFirst(map2, key, value, mergeFunction));
+                    return map2;
+                });
+    }
+
+    /**
+     * Returns a concurrent collector to a {@link ConcurrentHashMap}, all the threads of a parallel stream
+     * accumulate into the same map, so that nothing is merged.
+     *
+     * @param keyMapper     a function to extract the key of an element, the key cannot be null
+     * @param valueMapper   a function to extract the value of an element, the value cannot be null
+     * @param mergeFunction a function to merge the values of the same key in any order, null to fail on duplicate
+     *                      keys
+     * @param <E>           the type of the elements
+     * @param <K>           the type of the keys
+     * @param <V>           the type of the values
+     * @return the concurrent collector
+     */
+    static <E, K, V> Collector<E, ?, ConcurrentMap<K, V>> toConcurrentMap(
+            Function<? super E, ? extends K> keyMapper, Function<? super E, ? extends V> valueMapper,
+            BinaryOperator<V> mergeFunction) {
+        return Collector.<E, ConcurrentMap<K, V>>of(
+                ConcurrentHashMap::new,
+                (map, element) -> {
+                    if (element != null) {
+                        put(map, keyMapper.apply(element), valueMapper.apply(element), mergeFunction);
+                    }
+                },
+                (map1, map2) -> {
+                    // only called when the stream is not unordered or concurrent collection is not possible
+                    map2.forEach((key, value) -> put(map1, key, value, mergeFunction));
+                    return map1;
+                },
+                Collector.Characteristics.CONCURRENT, Collector.Characteristics.UNORDERED);
+    }
+
+    private static <K, V> void put(Map<K, V> map, K key, V value, BinaryOperator<V> mergeFunction) {
+        Objects.requireNonNull(value);
+        if (mergeFunction != null) {
+            map.merge(key, value, mergeFunction);
+        } else if (map.putIfAbsent(key, value) != null) {
+            throw new IllegalArgumentException("Duplicate key found: " + key);
+        }
+    }
+
+    private static <K, V> void putFirst(Map<K, V> map, K key, V value, BinaryOperator<V> mergeFunction) {
+        Objects.requireNonNull(value);
+        if (mergeFunction != null) {
+            map.merge(key, value, (later, earlier) -> mergeFunction.apply(earlier, later));
+        } else if (map.putIfAbsent(key, value) != null) {
+            throw new IllegalArgumentException("Duplicate key found: " + key);
+        }
+    }
+
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.dictionary;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An immutable, columnar table of dictionary rows, which stores the codes, the names and the descs in three
+ * parallel arrays behind a single index of the codes.
+ * <p>
+ * The table is built in a single pass and replaces the pair of maps of {@link BiDictionary#toMap(List)} and
+ * {@link TerDictionary#toDescMap(List)}, which duplicate the keys. Looking up a code is a probe of an open-addressing
+ * table of row numbers, and {@link #nameOf(Comparable)}, {@link #descOf(Comparable)} and the accessors by row but
+ * {@link #entryAt(int)} don't allocate anything. The table holds no per-row object, the entry of a row is interned
+ * on demand. The rows keep the order of the list.
+ *
+ * @param <T> the type of the code field, should implement {@link Comparable} and {@link Serializable}
+ * @param <U> the type of the name field, should implement {@link Comparable} and {@link Serializable}
+ * @param <S> the type of the desc field, should implement {@link Comparable} and {@link Serializable}
+ * @author Zen Gershon
+ * @see TerDictionary#toTable(List)
+ * @since 2.8
+ */
+public final class DictionaryTable<T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable,
+        S extends Comparable<S> & Serializable> {
+
+    private static final int[] EMPTY_SLOTS = new int[1];
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final DictionaryTable<?, ?, ?> EMPTY = new DictionaryTable(new Object[0], new Object[0],
+            new Object[0], EMPTY_SLOTS);
+
+    private final Object[] codes;
+
+    private final Object[] names;
+
+    private final Object[] descs;
+
+    /**
+     * The open-addressing index of the codes, a slot holds the row of a code plus one, or 0 if it is free.
+     */
+    private final int[] slots;
+
+    private DictionaryTable(Object[] codes, Object[] names, Object[] descs, int[] slots) {
+        this.codes = codes;
+        this.names = names;
+        this.descs = descs;
+        this.slots = slots;
+    }
+
+    /**
+     * Builds the table of the dictionaries in a single pass.
+     *
+     * @param terDictionaries the dictionaries, null elements are ignored
+     * @param <T>             the type of the code field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U>             the type of the name field, should implement {@link Comparable} and {@link Serializable}
+     * @param <S>             the type of the desc field, should implement {@link Comparable} and {@link Serializable}
+     * @return the table of the dictionaries, an empty table if {@code terDictionaries} is null or empty
+     * @throws IllegalArgumentException if duplicate codes are encountered.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable,
+            S extends Comparable<S> & Serializable> DictionaryTable<T, U, S> of(
+            List<? extends TerDictionary<T, U, S>> terDictionaries) {
+        if (terDictionaries == null || terDictionaries.isEmpty()) {
+            return (DictionaryTable<T, U, S>) EMPTY;
+        }
+
+        int capacity = terDictionaries.size();
+        Object[] codes = new Object[capacity];
+        Object[] names = new Object[capacity];
+        Object[] descs = new Object[capacity];
+        // at most half full
+        int[] slots = new int[Integer.highestOneBit(Math.max(capacity * 2 - 1, 1)) << 1];
+        int size = 0;
+        for (TerDictionary<T, U, S> terDictionary : terDictionaries) {
+            if (terDictionary == null) {
+                continue;
+            }
+
+            T code = terDictionary.getCode();
+            int slot = slotOf(codes, slots, code);
+            if (slots[slot] != 0) {
+                throw new IllegalArgumentException("Duplicate key found: " + code);
+            }
+            slots[slot] = size + 1;
+            codes[size] = code;
+            names[size] = terDictionary.getName();
+            descs[size] = terDictionary.getDesc();
+            size++;
+        }
+
+        if (size < capacity) {
+            codes = Arrays.copyOf(codes, size);
+            names = Arrays.copyOf(names, size);
+            descs = Arrays.copyOf(descs, size);
+        }
+        return new DictionaryTable<>(codes, names, descs, slots);
+    }
+
+    /**
+     * Finds the slot of the code, which is either the slot holding its row or the free slot where it belongs.
+     */
+    private static int slotOf(Object[] codes, int[] slots, Object code) {
+        int mask = slots.length - 1;
+        int h = Objects.hashCode(code);
+        int slot = (h ^ (h >>> 16)) & mask;
+        int row;
+        while ((row = slots[slot]) != 0 && !Objects.equals(codes[row - 1], code)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the row of the code.
+     *
+     * @param code the code, nullable
+     * @return the row, if not found, return -1
+     */
+    public int indexOf(T code) {
+        return slots[slotOf(codes, slots, code)] - 1;
+    }
+
+    /**
+     * Whether a row has the code.
+     *
+     * @param code the code, nullable
+     * @return {@code true} if a row has the code
+     */
+    public boolean contains(T code) {
+        return indexOf(code) >= 0;
+    }
+
+    /**
+     * Gets the name of the code.
+     *
+     * @param code the code, nullable
+     * @return the name, if not found, return null
+     */
+    @SuppressWarnings("unchecked")
+    public U nameOf(T code) {
+        int row = indexOf(code);
+        return row < 0 ? null : (U) names[row];
+    }
+
+    /**
+     * Gets the desc of the code.
+     *
+     * @param code the code, nullable
+     * @return the desc, if not found, return null
+     */
+    @SuppressWarnings("unchecked")
+    public S descOf(T code) {
+        int row = indexOf(code);
+        return row < 0 ? null : (S) descs[row];
+    }
+
+    /**
+     * Gets the code of the row.
+     *
+     * @param index the row, from 0 to {@link #size()} exclusive
+     * @return the code
+     * @throws IndexOutOfBoundsException if the row is out of range
+     */
+    @SuppressWarnings("unchecked")
+    public T codeAt(int index) {
+        return (T) codes[checkIndex(index)];
+    }
+
+    /**
+     * Gets the name of the row.
+     *
+     * @param index the row, from 0 to {@link #size()} exclusive
+     * @return the name
+     * @throws IndexOutOfBoundsException if the row is out of range
+     */
+    @SuppressWarnings("unchecked")
+    public U nameAt(int index) {
+        return (U) names[checkIndex(index)];
+    }
+
+    /**
+     * Gets the desc of the row.
+     *
+     * @param index the row, from 0 to {@link #size()} exclusive
+     * @return the desc
+     * @throws IndexOutOfBoundsException if the row is out of range
+     */
+    @SuppressWarnings("unchecked")
+    public S descAt(int index) {
+        return (S) descs[checkIndex(index)];
+    }
+
+    /**
+     * Gets the row as a dictionary entry. The table doesn't hold entries, the returned one is the canonical entry
+     * of {@link InternedTerDictionary}, interned on each call, which allocates a candidate entry that is dropped
+     * when the pool already holds it. Prefer the accessors by row in loops.
+     *
+     * @param index the row, from 0 to {@link #size()} exclusive
+     * @return the immutable entry of the row
+     * @throws IndexOutOfBoundsException if the row is out of range
+     */
+    public InternedTerDictionary<T, U, S> entryAt(int index) {
+        return InternedTerDictionary.of(codeAt(index), nameAt(index), descAt(index));
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return the number of rows
+     */
+    public int size() {
+        return codes.length;
+    }
+
+    /**
+     * Whether the table has no row.
+     *
+     * @return {@code true} if the table has no row
+     */
+    public boolean isEmpty() {
+        return codes.length == 0;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= codes.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + codes.length);
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return "DictionaryTable{" +
+                "size=" + codes.length +
+                '}';
+    }
+
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.dictionary;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable index of a hierarchical dictionary, which answers ancestor and descendant queries in constant time.
+ * <p>
+ * The tree is walked once, depth first, when the index is built: the entries are stored in pre-order, so that the
+ * subtree of an entry is the range from its position to the end of its subtree. An entry is an ancestor of another
+ * when the position of the other falls within its range, which is two comparisons after the lookup of the codes,
+ * and listing a subtree is a sub-list of the pre-order entries. Children keep the order of the list.
+ *
+ * @param <T> the type of the code field, should implement {@link Comparable} and {@link Serializable}
+ * @param <U> the type of the name field, should implement {@link Comparable} and {@link Serializable}
+ * @author Zen Gershon
+ * @see TreeDictionary#toTree(List)
+ * @since 2.8
+ */
+public final class DictionaryTree<T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable> {
+
+    private final List<TreeDictionary<T, U>> entries;
+
+    private final Map<T, Integer> positions;
+
+    /**
+     * The end of the subtree of each position, exclusive.
+     */
+    private final int[] ends;
+
+    /**
+     * The parent position of each position, or -1 for roots.
+     */
+    private final int[] parents;
+
+    private final int[] depths;
+
+    private DictionaryTree(List<TreeDictionary<T, U>> entries, Map<T, Integer> positions, int[] ends,
+                           int[] parents, int[] depths) {
+        this.entries = entries;
+        this.positions = positions;
+        this.ends = ends;
+        this.parents = parents;
+        this.depths = depths;
+    }
+
+    /**
+     * Builds the tree of the dictionaries.
+     *
+     * @param treeDictionaries the dictionaries, null elements are ignored
+     * @param <T>              the type of the code field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U>              the type of the name field, should implement {@link Comparable} and {@link Serializable}
+     * @return the tree of the dictionaries, an empty tree if {@code treeDictionaries} is null or empty
+     * @throws IllegalArgumentException if duplicate codes are encountered, if a parent code is not the code of an
+     *                                  entry, or if the parent codes form a cycle
+     */
+    public static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable>
+            DictionaryTree<T, U> of(List<? extends TreeDictionary<T, U>> treeDictionaries) {
+        List<TreeDictionary<T, U>> nodes = new ArrayList<>(treeDictionaries == null ? 0 : treeDictionaries.size());
+        Map<T, Integer> indexes = new HashMap<>();
+        if (treeDictionaries != null) {
+            for (TreeDictionary<T, U> node : treeDictionaries) {
+                if (node == null) {
+                    continue;
+                }
+                if (indexes.putIfAbsent(node.getCode(), nodes.size()) != null) {
+                    throw new IllegalArgumentException("Duplicate key found: " + node.getCode());
+                }
+                nodes.add(node);
+            }
+        }
+
+        // the children of each node and the roots, as linked lists of node indexes in list order
+        int size = nodes.size();
+        int[] firstChildren = new int[size + 1];
+        int[] lastChildren = new int[size + 1];
+        int[] nextSiblings = new int[size];
+        Arrays.fill(firstChildren, -1);
+        Arrays.fill(nextSiblings, -1);
+        for (int i = 0; i < size; i++) {
+            T parentCode = nodes.get(i).getParentCode();
+            int parent = size;
+            if (parentCode != null) {
+                Integer index = indexes.get(parentCode);
+                if (index == null) {
+                    throw new IllegalArgumentException("Parent code not found: " + parentCode);
+                }
+                parent = index;
+            }
+            if (firstChildren[parent] < 0) {
+                firstChildren[parent] = i;
+            } else {
+                nextSiblings[lastChildren[parent]] = i;
+            }
+            lastChildren[parent] = i;
+        }
+
+        List<TreeDictionary<T, U>> entries = new ArrayList<>(size);
+        Map<T, Integer> positions = new HashMap<>(Math.max(size * 2, 16));
+        int[] ends = new int[size];
+        int[] parents = new int[size];
+        int[] depths = new int[size];
+        // an iterative walk, deep trees would overflow the stack of a recursive one
+        int[] stack = new int[size + 1];
+        int top = 0;
+        stack[0] = size;
+        int[] cursors = firstChildren.clone();
+        int[] positionOf = new int[size + 1];
+        positionOf[size] = -1;
+        while (top >= 0) {
+            int parent = stack[top];
+            int child = cursors[parent];
+            if (child < 0) {
+                if (parent < size) {
+                    ends[positionOf[parent]] = entries.size();
+                }
+                top--;
+                continue;
+            }
+
+            cursors[parent] = nextSiblings[child];
+            int position = entries.size();
+            TreeDictionary<T, U> node = nodes.get(child);
+            entries.add(node);
+            positions.put(node.getCode(), position);
+            positionOf[child] = position;
+            parents[position] = positionOf[parent];
+            depths[position] = parent < size ? depths[positionOf[parent]] + 1 : 0;
+            stack[++top] = child;
+        }
+
+        // the nodes which can't be reached from a root are in cycles
+        if (entries.size() < size) {
+            for (TreeDictionary<T, U> node : nodes) {
+                if (!positions.containsKey(node.getCode())) {
+                    throw new IllegalArgumentException("Cycle found at: " + node.getCode());
+                }
+            }
+        }
+        return new DictionaryTree<>(Collections.unmodifiableList(entries), positions, ends, parents, depths);
+    }
+
+    /**
+     * Whether the first code is a strict ancestor of the second one.
+     *
+     * @param ancestorCode   the code of the ancestor
+     * @param descendantCode the code of the descendant
+     * @return {@code true} if both codes are found and the first one is a strict ancestor of the second one
+     */
+    public boolean isAncestor(T ancestorCode, T descendantCode) {
+        Integer ancestor = positions.get(ancestorCode);
+        Integer descendant = positions.get(descendantCode);
+        return ancestor != null && descendant != null && ancestor < descendant && descendant < ends[ancestor];
+    }
+
+    /**
+     * Whether the first code is a strict descendant of the second one.
+     *
+     * @param descendantCode the code of the descendant
+     * @param ancestorCode   the code of the ancestor
+     * @return {@code true} if both codes are found and the first one is a strict descendant of the second one
+     */
+    public boolean isDescendant(T descendantCode, T ancestorCode) {
+        return isAncestor(ancestorCode, descendantCode);
+    }
+
+    /**
+     * Gets the entry of the code.
+     *
+     * @param code the code
+     * @return the entry, if not found, return null
+     */
+    public TreeDictionary<T, U> get(T code) {
+        Integer position = positions.get(code);
+        return position == null ? null : entries.get(position);
+    }
+
+    /**
+     * Gets the parent entry of the code.
+     *
+     * @param code the code
+     * @return the parent entry, if not found or a root, return null
+     */
+    public TreeDictionary<T, U> parentOf(T code) {
+        Integer position = positions.get(code);
+        return position == null || parents[position] < 0 ? null : entries.get(parents[position]);
+    }
+
+    /**
+     * Gets the depth of the code, the depth of a root is 0.
+     *
+     * @param code the code
+     * @return the depth, if not found, return -1
+     */
+    public int depthOf(T code) {
+        Integer position = positions.get(code);
+        return position == null ? -1 : depths[position];
+    }
+
+    /**
+     * Lists the subtree of the code, which is the entry of the code followed by its descendants in pre-order.
+     *
+     * @param code the code
+     * @return the unmodifiable list of the subtree, empty if the code is not found
+     */
+    public List<TreeDictionary<T, U>> subtreeOf(T code) {
+        Integer position = positions.get(code);
+        return position == null ? Collections.emptyList() : entries.subList(position, ends[position]);
+    }
+
+    /**
+     * Lists the strict descendants of the code in pre-order.
+     *
+     * @param code the code
+     * @return the unmodifiable list of the descendants, empty if the code is not found
+     */
+    public List<TreeDictionary<T, U>> descendantsOf(T code) {
+        Integer position = positions.get(code);
+        return position == null ? Collections.emptyList() : entries.subList(position + 1, ends[position]);
+    }
+
+    /**
+     * Lists the entries in pre-order, the children of an entry follow it in the order of the list.
+     *
+     * @return the unmodifiable list of the entries
+     */
+    public List<TreeDictionary<T, U>> entries() {
+        return entries;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.dictionary;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * An immutable {@link BiDictionary}, interned per code and name, so that equal entries held by caches share the
+ * same instance. The hash code is computed once, and the setters fail fast.
+ *
+ * @param <T> the type of the code field, should implement {@link Comparable} and {@link Serializable}
+ * @param <U> the type of the name field, should implement {@link Comparable} and {@link Serializable}
+ * @author Zen Gershon
+ * @see InternedTerDictionary
+ * @since 2.8
+ */
+public final class InternedBiDictionary<T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable>
+        implements BiDictionary<T, U>, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final Interner<InternedBiDictionary<?, ?>> INTERNER = new Interner<>();
+
+    private final T code;
+
+    private final U name;
+
+    private final transient int hash;
+
+    private InternedBiDictionary(T code, U name) {
+        this.code = code;
+        this.name = name;
+        this.hash = 31 * Objects.hashCode(code) + Objects.hashCode(name);
+    }
+
+    /**
+     * Returns the canonical entry of the code and name.
+     *
+     * @param code the code, nullable
+     * @param name the name, nullable
+     * @param <T>  the type of the code field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U>  the type of the name field, should implement {@link Comparable} and {@link Serializable}
+     * @return the canonical entry
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable>
+    InternedBiDictionary<T, U> of(T code, U name) {
+        return (InternedBiDictionary<T, U>) INTERNER.intern(new InternedBiDictionary<>(code, name));
+    }
+
+    /**
+     * Returns the canonical entry of the code and name of the dictionary.
+     *
+     * @param dictionary the dictionary, not nullable
+     * @param <T>        the type of the code field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U>        the type of the name field, should implement {@link Comparable} and {@link Serializable}
+     * @return the canonical entry
+     */
+    public static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable>
+    InternedBiDictionary<T, U> copyOf(BiDictionary<T, U> dictionary) {
+        Objects.requireNonNull(dictionary, "Dictionary cannot be null");
+        return of(dictionary.getCode(), dictionary.getName());
+    }
+
+    @Override
+    public T getCode() {
+        return code;
+    }
+
+    @Override
+    public void setCode(T code) {
+        throw new UnsupportedOperationException("This method is not supported.");
+    }
+
+    @Override
+    public U getName() {
+        return name;
+    }
+
+    @Override
+    public void setName(U name) {
+        throw new UnsupportedOperationException("This method is not supported.");
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        InternedBiDictionary<?, ?> that = (InternedBiDictionary<?, ?>) obj;
+        return hash == that.hash && Objects.equals(code, that.code) && Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "InternedBiDictionary{" +
+                "code=" + code +
+                ", name=" + name +
+                '}';
+    }
+
+    private Object readResolve() {
+        return of(code, name);
+    }
+
+}
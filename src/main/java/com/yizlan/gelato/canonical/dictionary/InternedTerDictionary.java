@@ -0,0 +1,149 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.dictionary;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * An immutable {@link TerDictionary}, interned per code, name and desc, so that equal entries held by caches share
+ * the same instance. The hash code is computed once, and the setters fail fast.
+ *
+ * @param <T> the type of the code field, should implement {@link Comparable} and {@link Serializable}
+ * @param <U> the type of the name field, should implement {@link Comparable} and {@link Serializable}
+ * @param <S> the type of the desc field, should implement {@link Comparable} and {@link Serializable}
+ * @author Zen Gershon
+ * @see InternedBiDictionary
+ * @since 2.8
+ */
+public final class InternedTerDictionary<T extends Comparable<T> & Serializable,
+        U extends Comparable<U> & Serializable, S extends Comparable<S> & Serializable>
+        implements TerDictionary<T, U, S>, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final Interner<InternedTerDictionary<?, ?, ?>> INTERNER = new Interner<>();
+
+    private final T code;
+
+    private final U name;
+
+    private final S desc;
+
+    private final transient int hash;
+
+    private InternedTerDictionary(T code, U name, S desc) {
+        this.code = code;
+        this.name = name;
+        this.desc = desc;
+        this.hash = 31 * (31 * Objects.hashCode(code) + Objects.hashCode(name)) + Objects.hashCode(desc);
+    }
+
+    /**
+     * Returns the canonical entry of the code, name and desc.
+     *
+     * @param code the code, nullable
+     * @param name the name, nullable
+     * @param desc the desc, nullable
+     * @param <T>  the type of the code field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U>  the type of the name field, should implement {@link Comparable} and {@link Serializable}
+     * @param <S>  the type of the desc field, should implement {@link Comparable} and {@link Serializable}
+     * @return the canonical entry
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable,
+            S extends Comparable<S> & Serializable> InternedTerDictionary<T, U, S> of(T code, U name, S desc) {
+        return (InternedTerDictionary<T, U, S>) INTERNER.intern(new InternedTerDictionary<>(code, name, desc));
+    }
+
+    /**
+     * Returns the canonical entry of the code, name and desc of the dictionary.
+     *
+     * @param dictionary the dictionary, not nullable
+     * @param <T>        the type of the code field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U>        the type of the name field, should implement {@link Comparable} and {@link Serializable}
+     * @param <S>        the type of the desc field, should implement {@link Comparable} and {@link Serializable}
+     * @return the canonical entry
+     */
+    public static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable,
+            S extends Comparable<S> & Serializable> InternedTerDictionary<T, U, S> copyOf(
+            TerDictionary<T, U, S> dictionary) {
+        Objects.requireNonNull(dictionary, "Dictionary cannot be null");
+        return of(dictionary.getCode(), dictionary.getName(), dictionary.getDesc());
+    }
+
+    @Override
+    public T getCode() {
+        return code;
+    }
+
+    @Override
+    public void setCode(T code) {
+        throw new UnsupportedOperationException("This method is not supported.");
+    }
+
+    @Override
+    public U getName() {
+        return name;
+    }
+
+    @Override
+    public void setName(U name) {
+        throw new UnsupportedOperationException("This method is not supported.");
+    }
+
+    @Override
+    public S getDesc() {
+        return desc;
+    }
+
+    @Override
+    public void setDesc(S desc) {
+        throw new UnsupportedOperationException("This method is not supported.");
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        InternedTerDictionary<?, ?, ?> that = (InternedTerDictionary<?, ?, ?>) obj;
+        return hash == that.hash && Objects.equals(code, that.code) && Objects.equals(name, that.name) &&
+                Objects.equals(desc, that.desc);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "InternedTerDictionary{" +
+                "code=" + code +
+                ", name=" + name +
+                ", desc=" + desc +
+                '}';
+    }
+
+    private Object readResolve() {
+        return of(code, name, desc);
+    }
+
+}
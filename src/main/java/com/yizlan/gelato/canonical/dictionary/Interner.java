@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.dictionary;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A pool of canonical instances, so that equal values share the same instance.
+ * <p>
+ * Instances are held by weak references, an instance which is no longer used anywhere else is removed from the
+ * pool by the garbage collector. The pool is split into segments locked independently, to keep contention low
+ * when many threads intern at once.
+ *
+ * @param <E> the type of the instances
+ * @author Zen Gershon
+ * @since 2.8
+ */
+final class Interner<E> {
+
+    private static final int SEGMENTS = 16;
+
+    private final Map<E, WeakReference<E>>[] segments;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Interner() {
+        this.segments = new Map[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new WeakHashMap<>();
+        }
+    }
+
+    /**
+     * Returns the canonical instance equal to the given one, adding the given one if there isn't any.
+     *
+     * @param instance the instance, not nullable
+     * @return the canonical instance
+     */
+    E intern(E instance) {
+        int h = instance.hashCode();
+        Map<E, WeakReference<E>> segment = segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+        synchronized (segment) {
+            WeakReference<E> reference = segment.get(instance);
+            E canonical = reference == null ? null : reference.get();
+            if (canonical == null) {
+                segment.put(instance, new WeakReference<>(instance));
+                canonical = instance;
+            }
+            return canonical;
+        }
+    }
+
+    /**
+     * Returns the number of instances in the pool, including the ones which are about to be collected.
+     *
+     * @return the number of instances
+     */
+    int size() {
+        int size = 0;
+        for (Map<E, WeakReference<E>> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+}
@@ -25,8 +25,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.BiFunction;
 import java.util.function.BinaryOperator;
+import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
 /**
@@ -111,4 +113,151 @@ public interface TerDictionary<T extends Comparable<T> & Serializable, U extends
                 );
     }
 
+    /**
+     * Convert dictionary to a compact, immutable map, which is sorted by code and retains an estimated 8 bytes per
+     * entry instead of about 40 bytes for the map of {@link #toDescMap(List)}, see {@link SortedArrayMap}. Like
+     * that map, it doesn't accept null descs.
+     *
+     * @param terDictionaries A collection of classes or subclasses that implements {@link TerDictionary}.
+     *                        Note that null elements within the list are ignored.
+     * @param <T>             the type of the code field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U>             the type of the name field, should implement {@link Comparable} and {@link Serializable}
+     * @param <S>             the type of the desc field, should implement {@link Comparable} and {@link Serializable}
+     * @return An immutable Map whose keys are the code field, and whose values are the desc field.
+     * If {@code terDictionaries} is null or empty, returns an empty Map.
+     * @throws IllegalArgumentException if duplicate keys are encountered.
+     * @throws NullPointerException if a desc is null.
+     */
+    static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable,
+            S extends Comparable<S> & Serializable> Map<T, S> toCompactDescMap(
+            List<? extends TerDictionary<T, U, S>> terDictionaries) {
+        if (terDictionaries == null || terDictionaries.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        return SortedArrayMap.of(terDictionaries, TerDictionary::getCode,
+                item -> Objects.requireNonNull(item.getDesc()));
+    }
+
+    /**
+     * Convert dictionary to a compact, immutable map, which is sorted by code and doesn't accept null descs, see
+     * {@link #toCompactDescMap(List)}.
+     *
+     * @param terDictionaries A collection of classes or subclasses that implements {@link TerDictionary}.
+     *                        Note that null elements within the list are ignored.
+     * @param mergeFunction   a merge function, used to resolve collisions between values associated with the same
+     *                        key, applied in encounter order
+     * @param <T>             the type of the code field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U>             the type of the name field, should implement {@link Comparable} and {@link Serializable}
+     * @param <S>             the type of the desc field, should implement {@link Comparable} and {@link Serializable}
+     * @return An immutable Map whose keys are the code field, and whose values are the desc field.
+     * If {@code terDictionaries} is null or empty, returns an empty Map.
+     * @throws NullPointerException if a desc is null.
+     */
+    static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable,
+            S extends Comparable<S> & Serializable> Map<T, S> toCompactDescMap(
+            List<? extends TerDictionary<T, U, S>> terDictionaries, BinaryOperator<S> mergeFunction) {
+        if (terDictionaries == null || terDictionaries.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        return SortedArrayMap.of(terDictionaries, TerDictionary::getCode,
+                item -> Objects.requireNonNull(item.getDesc()), mergeFunction);
+    }
+
+    /**
+     * Convert dictionary to a columnar table, in a single pass, whose names and descs are both looked up by code,
+     * see {@link DictionaryTable}.
+     *
+     * @param terDictionaries A collection of classes or subclasses that implements {@link TerDictionary}.
+     *                        Note that null elements within the list are ignored.
+     * @param <T>             the type of the code field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U>             the type of the name field, should implement {@link Comparable} and {@link Serializable}
+     * @param <S>             the type of the desc field, should implement {@link Comparable} and {@link Serializable}
+     * @return An immutable table of the codes, names and descs. If {@code terDictionaries} is null or empty, returns
+     * an empty table.
+     * @throws IllegalArgumentException if duplicate keys are encountered.
+     */
+    static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable,
+            S extends Comparable<S> & Serializable> DictionaryTable<T, U, S> toTable(
+            List<? extends TerDictionary<T, U, S>> terDictionaries) {
+        return DictionaryTable.of(terDictionaries);
+    }
+
+    /**
+     * Returns a {@code Collector} which collects dictionaries to a map, like {@link #toDescMap(List)}, for loaders
+     * streaming their rows rather than building a list. Iterators and spliterators can be collected through
+     * {@link java.util.stream.StreamSupport#stream(java.util.Spliterator, boolean)}.
+     *
+     * @param <T> the type of the code field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U> the type of the name field, should implement {@link Comparable} and {@link Serializable}
+     * @param <S> the type of the desc field, should implement {@link Comparable} and {@link Serializable}
+     * @return A Collector which collects elements into a Map whose keys are the code field, and whose values are
+     * the desc field. Null elements are ignored, and null descs are not allowed.
+     * @throws IllegalArgumentException if duplicate keys are encountered, when the stream is collected.
+     */
+    static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable,
+            S extends Comparable<S> & Serializable>
+            Collector<TerDictionary<T, U, S>, ?, Map<T, S>> descCollector() {
+        return DictionaryCollectors.toMap(TerDictionary::getCode, TerDictionary::getDesc, null);
+    }
+
+    /**
+     * Returns a {@code Collector} which collects dictionaries to a map, see {@link #descCollector()}.
+     *
+     * @param mergeFunction a merge function, used to resolve collisions between values associated with the same
+     *                      key, applied in encounter order
+     * @param <T>           the type of the code field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U>           the type of the name field, should implement {@link Comparable} and {@link Serializable}
+     * @param <S>           the type of the desc field, should implement {@link Comparable} and {@link Serializable}
+     * @return A Collector which collects elements into a Map whose keys are the code field, and whose values are
+     * the desc field. Null elements are ignored, and null descs are not allowed.
+     */
+    static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable,
+            S extends Comparable<S> & Serializable>
+            Collector<TerDictionary<T, U, S>, ?, Map<T, S>> descCollector(BinaryOperator<S> mergeFunction) {
+        Objects.requireNonNull(mergeFunction, "Merge function cannot be null");
+        return DictionaryCollectors.toMap(TerDictionary::getCode, TerDictionary::getDesc, mergeFunction);
+    }
+
+    /**
+     * Returns a concurrent {@code Collector} which collects dictionaries to a {@link ConcurrentMap}. When the
+     * stream is parallel and unordered, all the threads accumulate into the same map instead of merging a map per
+     * thread.
+     *
+     * @param <T> the type of the code field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U> the type of the name field, should implement {@link Comparable} and {@link Serializable}
+     * @param <S> the type of the desc field, should implement {@link Comparable} and {@link Serializable}
+     * @return A concurrent Collector which collects elements into a ConcurrentMap whose keys are the code field,
+     * and whose values are the desc field. Null elements are ignored, and null codes and descs are not
+     * allowed.
+     * @throws IllegalArgumentException if duplicate keys are encountered, when the stream is collected.
+     */
+    static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable,
+            S extends Comparable<S> & Serializable>
+            Collector<TerDictionary<T, U, S>, ?, ConcurrentMap<T, S>> concurrentDescCollector() {
+        return DictionaryCollectors.toConcurrentMap(TerDictionary::getCode, TerDictionary::getDesc, null);
+    }
+
+    /**
+     * Returns a concurrent {@code Collector} which collects dictionaries to a {@link ConcurrentMap}, see
+     * {@link #concurrentDescCollector()}.
+     *
+     * @param mergeFunction a merge function, used to resolve collisions between values associated with the same
+     *                      key, applied in no particular order
+     * @param <T>           the type of the code field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U>           the type of the name field, should implement {@link Comparable} and {@link Serializable}
+     * @param <S>           the type of the desc field, should implement {@link Comparable} and {@link Serializable}
+     * @return A concurrent Collector which collects elements into a ConcurrentMap whose keys are the code field,
+     * and whose values are the desc field. Null elements are ignored, and null codes and descs are not
+     * allowed.
+     */
+    static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable,
+            S extends Comparable<S> & Serializable>
+            Collector<TerDictionary<T, U, S>, ?, ConcurrentMap<T, S>> concurrentDescCollector(
+            BinaryOperator<S> mergeFunction) {
+        Objects.requireNonNull(mergeFunction, "Merge function cannot be null");
+        return DictionaryCollectors.toConcurrentMap(TerDictionary::getCode, TerDictionary::getDesc, mergeFunction);
+    }
+
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.dictionary;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Provide fields which named code、name and parent code for hierarchical dictionaries, such as regions, org units
+ * or categories. The parent code of a root is null.
+ * <p>
+ * Ancestor and descendant queries should be answered by the {@link DictionaryTree} of the dictionaries, which is
+ * built once, rather than by walking the parent codes.
+ *
+ * @param <T> the type of the code and parent code fields, should implement {@link Comparable} and
+ *            {@link Serializable}
+ * @param <U> the type of the name field, should implement {@link Comparable} and {@link Serializable}
+ * @author Zen Gershon
+ * @see BiDictionary
+ * @see DictionaryTree
+ * @since 2.8
+ */
+public interface TreeDictionary<T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable>
+        extends BiDictionary<T, U> {
+
+    T getParentCode();
+
+    void setParentCode(T parentCode);
+
+    /**
+     * Convert dictionary to a tree, which answers ancestor and descendant queries in constant time, see
+     * {@link DictionaryTree}.
+     *
+     * @param treeDictionaries A collection of classes or subclasses that implements {@link TreeDictionary}.
+     *                         Note that null elements within the list are ignored.
+     * @param <T>              the type of the code field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U>              the type of the name field, should implement {@link Comparable} and {@link Serializable}
+     * @return An immutable tree of the dictionaries. If {@code treeDictionaries} is null or empty, returns an empty
+     * tree.
+     * @throws IllegalArgumentException if duplicate keys, unknown parent codes or cycles are encountered.
+     */
+    static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable> DictionaryTree<T, U> toTree(
+            List<? extends TreeDictionary<T, U>> treeDictionaries) {
+        return DictionaryTree.of(treeDictionaries);
+    }
+
+}
@@ -21,7 +21,10 @@
  * <p>This package offers the following core functionalities:
  * <ul>
  *     <li>Provides Getter and Setter for dictionary</li>
- *     <li>Provides dictionary to Map conversion</li>
+ *     <li>Provides dictionary to Map conversion, including compact sorted maps</li>
+ *     <li>Provides a columnar table of codes, names and descs</li>
+ *     <li>Provides hierarchical dictionaries with constant-time ancestor queries</li>
+ *     <li>Provides immutable dictionary entries interned per value</li>
  * </ul>
  *
  * @author Zen Gershon
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.dictionary.store;
+
+import com.yizlan.gelato.canonical.dictionary.TerDictionary;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The changes between two {@link DictionarySnapshot}s, so that clients holding the older one can be sent only what
+ * changed instead of the whole dictionary.
+ * <p>
+ * A delta is made of the rows whose code is new, the codes which are gone, and the rows whose code is kept but whose
+ * name or desc changed, along with the content tags of both snapshots. Applying it to a copy of the older snapshot
+ * gives a copy of the newer one.
+ *
+ * @param <T> the type of the code field, should implement {@link Comparable} and {@link Serializable}
+ * @param <U> the type of the name field, should implement {@link Comparable} and {@link Serializable}
+ * @param <S> the type of the desc field, should implement {@link Comparable} and {@link Serializable}
+ * @author Zen Gershon
+ * @see DictionarySnapshot#deltaFrom(DictionarySnapshot)
+ * @since 2.8
+ */
+public final class DictionaryDelta<T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable,
+        S extends Comparable<S> & Serializable> {
+
+    private final String fromTag;
+
+    private final String toTag;
+
+    private final List<TerDictionary<T, U, S>> added;
+
+    private final List<T> removed;
+
+    private final List<TerDictionary<T, U, S>> changed;
+
+    private DictionaryDelta(String fromTag, String toTag, List<TerDictionary<T, U, S>> added, List<T> removed,
+                            List<TerDictionary<T, U, S>> changed) {
+        this.fromTag = fromTag;
+        this.toTag = toTag;
+        this.added = added;
+        this.removed = removed;
+        this.changed = changed;
+    }
+
+    /**
+     * Computes the changes from one snapshot to another, in a single pass over each of them.
+     *
+     * @param from the older snapshot, not nullable
+     * @param to   the newer snapshot, not nullable
+     * @param <T>  the type of the code field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U>  the type of the name field, should implement {@link Comparable} and {@link Serializable}
+     * @param <S>  the type of the desc field, should implement {@link Comparable} and {@link Serializable}
+     * @return the delta from {@code from} to {@code to}
+     */
+    public static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable,
+            S extends Comparable<S> & Serializable> DictionaryDelta<T, U, S> between(
+            DictionarySnapshot<T, U, S> from, DictionarySnapshot<T, U, S> to) {
+        Objects.requireNonNull(from, "From snapshot cannot be null");
+        Objects.requireNonNull(to, "To snapshot cannot be null");
+        List<TerDictionary<T, U, S>> added = new ArrayList<>();
+        List<TerDictionary<T, U, S>> changed = new ArrayList<>();
+        for (TerDictionary<T, U, S> entry : to.entries()) {
+            TerDictionary<T, U, S> previous = from.get(entry.getCode());
+            if (previous == null) {
+                added.add(entry);
+            } else if (!previous.equals(entry)) {
+                changed.add(entry);
+            }
+        }
+
+        List<T> removed = new ArrayList<>();
+        for (TerDictionary<T, U, S> entry : from.entries()) {
+            if (!to.contains(entry.getCode())) {
+                removed.add(entry.getCode());
+            }
+        }
+        return new DictionaryDelta<>(from.contentTag(), to.contentTag(), Collections.unmodifiableList(added),
+                Collections.unmodifiableList(removed), Collections.unmodifiableList(changed));
+    }
+
+    /**
+     * Returns the content tag of the older snapshot.
+     *
+     * @return the content tag the delta applies to
+     */
+    public String getFromTag() {
+        return fromTag;
+    }
+
+    /**
+     * Returns the content tag of the newer snapshot.
+     *
+     * @return the content tag the delta leads to
+     */
+    public String getToTag() {
+        return toTag;
+    }
+
+    /**
+     * Returns the rows whose code is not in the older snapshot.
+     *
+     * @return the unmodifiable list of added rows
+     */
+    public List<TerDictionary<T, U, S>> getAdded() {
+        return added;
+    }
+
+    /**
+     * Returns the codes which are not in the newer snapshot.
+     *
+     * @return the unmodifiable list of removed codes
+     */
+    public List<T> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * Returns the rows of the newer snapshot whose code is in the older snapshot with another name or desc.
+     *
+     * @return the unmodifiable list of changed rows
+     */
+    public List<TerDictionary<T, U, S>> getChanged() {
+        return changed;
+    }
+
+    /**
+     * Whether nothing changed.
+     *
+     * @return {@code true} if there isn't any added, removed or changed row
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+    }
+
+    /**
+     * Applies this delta to the rows of a snapshot.
+     *
+     * @param snapshot the snapshot whose content tag is the from tag of this delta, not nullable
+     * @param version  the version of the resulting snapshot
+     * @return the resulting snapshot, whose content tag is the to tag of this delta
+     * @throws IllegalArgumentException if the content tag of the snapshot is not the from tag of this delta
+     */
+    public DictionarySnapshot<T, U, S> applyTo(DictionarySnapshot<T, U, S> snapshot, long version) {
+        Objects.requireNonNull(snapshot, "Snapshot cannot be null");
+        if (!fromTag.equals(snapshot.contentTag())) {
+            throw new IllegalArgumentException("Delta from " + fromTag + " cannot be applied to " +
+                    snapshot.contentTag());
+        }
+
+        Set<T> removedCodes = new HashSet<>(removed);
+        Map<T, TerDictionary<T, U, S>> changedRows = new HashMap<>(Math.max(changed.size() * 2, 16));
+        for (TerDictionary<T, U, S> entry : changed) {
+            changedRows.put(entry.getCode(), entry);
+        }
+
+        List<TerDictionary<T, U, S>> rows = new ArrayList<>(snapshot.size() + added.size());
+        for (TerDictionary<T, U, S> entry : snapshot.entries()) {
+            if (!removedCodes.contains(entry.getCode())) {
+                rows.add(changedRows.getOrDefault(entry.getCode(), entry));
+            }
+        }
+        rows.addAll(added);
+        return DictionarySnapshot.of(version, rows);
+    }
+
+    @Override
+    public String toString() {
+        return "DictionaryDelta{" +
+                "fromTag=" + fromTag +
+                ", toTag=" + toTag +
+                ", added=" + added.size() +
+                ", removed=" + removed.size() +
+                ", changed=" + changed.size() +
+                '}';
+    }
+
+}
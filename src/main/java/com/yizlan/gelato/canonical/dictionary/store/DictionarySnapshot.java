@@ -0,0 +1,262 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.dictionary.store;
+
+import com.yizlan.gelato.canonical.dictionary.BiDictionary;
+import com.yizlan.gelato.canonical.dictionary.InternedTerDictionary;
+import com.yizlan.gelato.canonical.dictionary.TerDictionary;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An immutable, versioned snapshot of dictionary rows indexed by code.
+ * <p>
+ * Rows are stored as {@link InternedTerDictionary} entries, the desc of {@link BiDictionary} rows which are not
+ * {@link TerDictionary} is null. Looking up a code is a single hash lookup and doesn't allocate anything.
+ * <p>
+ * Besides its version, which is local to a store, a snapshot has a {@link #contentTag() content tag} which only
+ * depends on its rows, so that clients can tell whether their copy of the dictionary is up-to-date, such as with
+ * an {@code ETag}, and ask for a {@link DictionaryDelta} otherwise.
+ *
+ * @param <T> the type of the code field, should implement {@link Comparable} and {@link Serializable}
+ * @param <U> the type of the name field, should implement {@link Comparable} and {@link Serializable}
+ * @param <S> the type of the desc field, should implement {@link Comparable} and {@link Serializable}
+ * @author Zen Gershon
+ * @see DictionaryStore
+ * @since 2.8
+ */
+public final class DictionarySnapshot<T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable,
+        S extends Comparable<S> & Serializable> {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final DictionarySnapshot<?, ?, ?> EMPTY = new DictionarySnapshot(0L, Collections.emptyList(),
+            Collections.emptyMap());
+
+    private final long version;
+
+    private final List<TerDictionary<T, U, S>> entries;
+
+    private final Map<T, TerDictionary<T, U, S>> index;
+
+    private final String contentTag;
+
+    private DictionarySnapshot(long version, List<TerDictionary<T, U, S>> entries,
+                               Map<T, TerDictionary<T, U, S>> index) {
+        this.version = version;
+        this.entries = entries;
+        this.index = index;
+        this.contentTag = contentTagOf(entries);
+    }
+
+    /**
+     * Returns the snapshot of version 0 without any row.
+     *
+     * @param <T> the type of the code field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U> the type of the name field, should implement {@link Comparable} and {@link Serializable}
+     * @param <S> the type of the desc field, should implement {@link Comparable} and {@link Serializable}
+     * @return the empty snapshot
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable,
+            S extends Comparable<S> & Serializable> DictionarySnapshot<T, U, S> empty() {
+        return (DictionarySnapshot<T, U, S>) EMPTY;
+    }
+
+    /**
+     * Builds a snapshot of the rows.
+     *
+     * @param version the version of the snapshot
+     * @param rows    the rows, null elements are ignored
+     * @param <T>     the type of the code field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U>     the type of the name field, should implement {@link Comparable} and {@link Serializable}
+     * @param <S>     the type of the desc field, should implement {@link Comparable} and {@link Serializable}
+     * @return the snapshot of the rows
+     * @throws IllegalArgumentException if two rows have the same code
+     */
+    public static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable,
+            S extends Comparable<S> & Serializable> DictionarySnapshot<T, U, S> of(
+            long version, Collection<? extends BiDictionary<T, U>> rows) {
+        Objects.requireNonNull(rows, "Rows cannot be null");
+        List<TerDictionary<T, U, S>> entries = new ArrayList<>(rows.size());
+        Map<T, TerDictionary<T, U, S>> index = new HashMap<>(Math.max(rows.size() * 2, 16));
+        for (BiDictionary<T, U> row : rows) {
+            if (row == null) {
+                continue;
+            }
+
+            TerDictionary<T, U, S> entry = entryOf(row);
+            if (index.putIfAbsent(entry.getCode(), entry) != null) {
+                throw new IllegalArgumentException("Duplicate key found: " + entry.getCode());
+            }
+            entries.add(entry);
+        }
+        return new DictionarySnapshot<>(version, Collections.unmodifiableList(entries), index);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable,
+            S extends Comparable<S> & Serializable> TerDictionary<T, U, S> entryOf(BiDictionary<T, U> row) {
+        S desc = row instanceof TerDictionary ? ((TerDictionary<T, U, S>) row).getDesc() : null;
+        return InternedTerDictionary.of(row.getCode(), row.getName(), desc);
+    }
+
+    /**
+     * Returns the version of this snapshot, the store increases it on every publication.
+     *
+     * @return the version
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Returns the content tag of this snapshot, a 64-bit hash of its rows in hexadecimal.
+     * <p>
+     * The tag doesn't depend on the order of the rows nor on the version, and it is stable across processes as long
+     * as the {@link Object#toString()} of the codes, names and descs are, which is the case of strings and numbers.
+     *
+     * @return the content tag, 16 hexadecimal digits
+     */
+    public String contentTag() {
+        return contentTag;
+    }
+
+    /**
+     * Computes the changes from the previous snapshot to this one.
+     *
+     * @param previous the previous snapshot, not nullable
+     * @return the delta from {@code previous} to this snapshot
+     */
+    public DictionaryDelta<T, U, S> deltaFrom(DictionarySnapshot<T, U, S> previous) {
+        return DictionaryDelta.between(previous, this);
+    }
+
+    /**
+     * Gets the row of the code.
+     *
+     * @param code the code
+     * @return the row, if not found, return null
+     */
+    public TerDictionary<T, U, S> get(T code) {
+        return index.get(code);
+    }
+
+    /**
+     * Whether a row has the code.
+     *
+     * @param code the code
+     * @return {@code true} if a row has the code
+     */
+    public boolean contains(T code) {
+        return index.containsKey(code);
+    }
+
+    /**
+     * Gets the name of the code.
+     *
+     * @param code the code
+     * @return the name, if not found, return null
+     */
+    public U nameOf(T code) {
+        TerDictionary<T, U, S> entry = index.get(code);
+        return entry == null ? null : entry.getName();
+    }
+
+    /**
+     * Gets the desc of the code.
+     *
+     * @param code the code
+     * @return the desc, if not found, return null
+     */
+    public S descOf(T code) {
+        TerDictionary<T, U, S> entry = index.get(code);
+        return entry == null ? null : entry.getDesc();
+    }
+
+    /**
+     * Returns the rows of this snapshot in publication order.
+     *
+     * @return the unmodifiable list of rows
+     */
+    public List<TerDictionary<T, U, S>> entries() {
+        return entries;
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return the number of rows
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public String toString() {
+        return "DictionarySnapshot{" +
+                "version=" + version +
+                ", size=" + entries.size() +
+                ", contentTag=" + contentTag +
+                '}';
+    }
+
+    /**
+     * Sums the hashes of the rows, so that the tag doesn't depend on their order.
+     */
+    private static String contentTagOf(List<? extends TerDictionary<?, ?, ?>> entries) {
+        long tag = 0L;
+        for (TerDictionary<?, ?, ?> entry : entries) {
+            long h = FNV_OFFSET_BASIS;
+            h = hash(h, entry.getCode());
+            h = hash(h, entry.getName());
+            h = hash(h, entry.getDesc());
+            // spreads the bits before summing, see the finalizer of MurmurHash3
+            h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+            h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+            tag += h ^ (h >>> 33);
+        }
+        String hex = Long.toHexString(tag);
+        return "0000000000000000".substring(hex.length()) + hex;
+    }
+
+    /**
+     * Hashes the string form of the value with FNV-1a, a null value and the end of a value are marked by
+     * characters which can't be confused with the content.
+     */
+    private static long hash(long h, Object value) {
+        if (value == null) {
+            return (h ^ 0xFFFF) * FNV_PRIME;
+        }
+        String text = value.toString();
+        for (int i = 0, length = text.length(); i < length; i++) {
+            h = (h ^ text.charAt(i)) * FNV_PRIME;
+        }
+        return (h ^ 0xFFFE) * FNV_PRIME;
+    }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.dictionary.store;
+
+import com.yizlan.gelato.canonical.dictionary.BiDictionary;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A hot-reloadable store of dictionary rows, such as the rows of a configuration table, which publishes immutable
+ * {@link DictionarySnapshot}s through a single volatile reference.
+ * <p>
+ * Readers never lock: a read is a volatile read of the current snapshot followed by a hash lookup, and a reader
+ * holding a snapshot keeps a consistent view of the rows even if a new snapshot is published meanwhile. Writers
+ * build a whole snapshot and swap it in at once, they are serialized with each other so that versions increase
+ * one by one.
+ * <p>
+ * The store keeps the last snapshots it published, so that a client sending the {@link DictionarySnapshot#contentTag()
+ * content tag} of its copy can be answered with {@link #deltaSince(String)}: an empty delta if its copy is
+ * up-to-date, the changes since then, or null if the tag is too old and the whole dictionary has to be sent.
+ *
+ * @param <T> the type of the code field, should implement {@link Comparable} and {@link Serializable}
+ * @param <U> the type of the name field, should implement {@link Comparable} and {@link Serializable}
+ * @param <S> the type of the desc field, should implement {@link Comparable} and {@link Serializable}
+ * @author Zen Gershon
+ * @see DictionarySnapshot
+ * @since 2.8
+ */
+public final class DictionaryStore<T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable,
+        S extends Comparable<S> & Serializable> {
+
+    private static final int DEFAULT_HISTORY_SIZE = 8;
+
+    private final Object writeLock = new Object();
+
+    private final int historySize;
+
+    private volatile DictionarySnapshot<T, U, S> snapshot = DictionarySnapshot.empty();
+
+    // the last published snapshots, oldest first, replaced as a whole by writers
+    private volatile List<DictionarySnapshot<T, U, S>> history = Collections.singletonList(snapshot);
+
+    /**
+     * Creates an empty store which keeps the last 8 snapshots.
+     */
+    public DictionaryStore() {
+        this(DEFAULT_HISTORY_SIZE);
+    }
+
+    /**
+     * Creates an empty store.
+     *
+     * @param historySize the number of snapshots kept to compute deltas, including the current one, at least 1
+     * @throws IllegalArgumentException if {@code historySize} is less than 1
+     */
+    public DictionaryStore(int historySize) {
+        if (historySize < 1) {
+            throw new IllegalArgumentException("History size must be at least 1: " + historySize);
+        }
+        this.historySize = historySize;
+    }
+
+    /**
+     * Returns the current snapshot, callers which look up several codes should hold it rather than calling the
+     * lookup methods of the store, so that all lookups see the same version.
+     *
+     * @return the current snapshot, of version 0 if nothing has been published
+     */
+    public DictionarySnapshot<T, U, S> snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Replaces all rows of the store.
+     *
+     * @param rows the new rows, null elements are ignored
+     * @return the published snapshot
+     * @throws IllegalArgumentException if two rows have the same code, the current snapshot is kept
+     */
+    public DictionarySnapshot<T, U, S> publish(Collection<? extends BiDictionary<T, U>> rows) {
+        Objects.requireNonNull(rows, "Rows cannot be null");
+        synchronized (writeLock) {
+            DictionarySnapshot<T, U, S> published = DictionarySnapshot.of(snapshot.version() + 1, rows);
+            List<DictionarySnapshot<T, U, S>> snapshots = new ArrayList<>(history);
+            snapshots.add(published);
+            if (snapshots.size() > historySize) {
+                snapshots.remove(0);
+            }
+            this.history = Collections.unmodifiableList(snapshots);
+            this.snapshot = published;
+            return published;
+        }
+    }
+
+    /**
+     * Computes the changes from the snapshot of the content tag to the current snapshot.
+     *
+     * @param contentTag the content tag of the snapshot held by the client
+     * @return the delta, empty if the content tag is the current one; null if the content tag is unknown, or
+     * older than the snapshots kept by the store
+     */
+    public DictionaryDelta<T, U, S> deltaSince(String contentTag) {
+        List<DictionarySnapshot<T, U, S>> snapshots = history;
+        DictionarySnapshot<T, U, S> current = snapshots.get(snapshots.size() - 1);
+        // the most recent snapshot of the tag, the content may have been published more than once
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            DictionarySnapshot<T, U, S> candidate = snapshots.get(i);
+            if (candidate.contentTag().equals(contentTag)) {
+                return current.deltaFrom(candidate);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the version of the current snapshot.
+     *
+     * @return the version
+     */
+    public long version() {
+        return snapshot.version();
+    }
+
+    /**
+     * Gets the name of the code in the current snapshot.
+     *
+     * @param code the code
+     * @return the name, if not found, return null
+     */
+    public U nameOf(T code) {
+        return snapshot.nameOf(code);
+    }
+
+    /**
+     * Gets the desc of the code in the current snapshot.
+     *
+     * @param code the code
+     * @return the desc, if not found, return null
+     */
+    public S descOf(T code) {
+        return snapshot.descOf(code);
+    }
+
+}
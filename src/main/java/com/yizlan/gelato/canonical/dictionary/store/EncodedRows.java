@@ -0,0 +1,97 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.dictionary.store;
+
+import com.yizlan.gelato.canonical.dictionary.BiDictionary;
+import com.yizlan.gelato.canonical.dictionary.TerDictionary;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Encodes dictionary rows as the UTF-8 bytes of their {@link Object#toString()}, sorted by code, for the binary
+ * formats of {@link MappedDictionary} and {@link FrontCodedDictionary}.
+ *
+ * @author Zen Gershon
+ * @since 2.8
+ */
+final class EncodedRows {
+
+    private EncodedRows() {
+        // to do nothing
+    }
+
+    /**
+     * Encodes the rows, each as an array of the bytes of its code, its name and its desc, sorted by code bytes.
+     *
+     * @param rows the rows, null elements are ignored
+     * @return the encoded rows, a null name or desc is encoded as null
+     * @throws IllegalArgumentException if two rows have the same code
+     * @throws NullPointerException     if a code is null
+     */
+    static List<byte[][]> encode(Collection<? extends BiDictionary<?, ?>> rows) {
+        List<byte[][]> records = new ArrayList<>(rows.size());
+        for (BiDictionary<?, ?> row : rows) {
+            if (row != null) {
+                Object desc = row instanceof TerDictionary ? ((TerDictionary<?, ?, ?>) row).getDesc() : null;
+                records.add(new byte[][]{
+                        bytesOf(Objects.requireNonNull(row.getCode(), "Code cannot be null")),
+                        bytesOf(row.getName()),
+                        bytesOf(desc)
+                });
+            }
+        }
+        records.sort((r1, r2) -> compare(r1[0], r1[0].length, r2[0]));
+
+        for (int i = 1; i < records.size(); i++) {
+            byte[] code = records.get(i)[0];
+            byte[] previous = records.get(i - 1)[0];
+            if (compare(previous, previous.length, code) == 0) {
+                throw new IllegalArgumentException("Duplicate key found: " + new String(code,
+                        StandardCharsets.UTF_8));
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Compares the first bytes of the array with the key, as unsigned bytes.
+     *
+     * @param bytes  the array
+     * @param length the number of bytes of the array to compare
+     * @param key    the key
+     * @return a negative integer, zero, or a positive integer as the bytes are less than, equal to, or greater
+     * than the key
+     */
+    static int compare(byte[] bytes, int length, byte[] key) {
+        for (int i = 0, n = Math.min(length, key.length); i < n; i++) {
+            int comparison = Integer.compare(bytes[i] & 0xFF, key[i] & 0xFF);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private static byte[] bytesOf(Object value) {
+        return value == null ? null : value.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+}
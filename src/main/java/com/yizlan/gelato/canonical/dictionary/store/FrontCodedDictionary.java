@@ -0,0 +1,406 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.dictionary.store;
+
+import com.yizlan.gelato.canonical.dictionary.BiDictionary;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An immutable, off-heap dictionary of string codes, which maps the codes to ordinals with a front-coded index,
+ * and the ordinals to names and descs.
+ * <p>
+ * The codes are sorted by their UTF-8 bytes and grouped in blocks of {@value #BLOCK_SIZE}: the first code of a block
+ * is stored in full, and the next ones as the length of the prefix they share with the previous code followed by
+ * the rest of their bytes. Codes such as region codes or SKUs mostly share long prefixes, so they take a few bytes
+ * each. Looking up a code is a binary search over the first codes of the blocks and a scan of a single block.
+ * <p>
+ * Names and descs are stored once per distinct value, as the labels of dictionaries repeat a lot, and referenced by
+ * the ordinals. Everything lives in a single direct buffer, so a dictionary costs a few objects on the heap
+ * whatever its size, where a {@code HashMap<String, String>} costs a node, a table slot and two strings per entry,
+ * more than 100 bytes plus the characters, see {@link #offHeapBytes()}.
+ * <p>
+ * Codes, names and descs are stored as the UTF-8 bytes of their {@link Object#toString()}. Instances are
+ * thread-safe.
+ *
+ * @author Zen Gershon
+ * @see MappedDictionary
+ * @since 2.8
+ */
+public final class FrontCodedDictionary {
+
+    /**
+     * The number of codes per block, a trade-off between the size of the index and the length of the scans.
+     */
+    static final int BLOCK_SIZE = 16;
+
+    private static final int NULL_LABEL = -1;
+
+    private final ByteBuffer buffer;
+
+    private final int size;
+
+    private final int maxCodeLength;
+
+    // the sections of the buffer: block offsets, name references, desc references, codes and labels
+    private final int namesStart;
+
+    private final int descsStart;
+
+    private final int codesStart;
+
+    private final int labelsStart;
+
+    private FrontCodedDictionary(ByteBuffer buffer, int size, int maxCodeLength) {
+        int blockCount = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        this.buffer = buffer;
+        this.size = size;
+        this.maxCodeLength = maxCodeLength;
+        this.namesStart = 4 * blockCount;
+        this.descsStart = namesStart + 4 * size;
+        this.codesStart = descsStart + 4 * size;
+        this.labelsStart = buffer.getInt(buffer.capacity() - 4);
+    }
+
+    /**
+     * Builds the dictionary of the rows.
+     *
+     * @param rows the rows, null elements are ignored
+     * @return the dictionary of the rows
+     * @throws IllegalArgumentException if two rows have the same code, or if the dictionary would exceed 2 GB
+     * @throws NullPointerException     if a code is null
+     */
+    public static FrontCodedDictionary of(Collection<? extends BiDictionary<?, ?>> rows) {
+        Objects.requireNonNull(rows, "Rows cannot be null");
+
+        List<byte[][]> records = EncodedRows.encode(rows);
+        int size = records.size();
+        int blockCount = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        int[] blockOffsets = new int[blockCount];
+        int[] nameReferences = new int[size];
+        int[] descReferences = new int[size];
+        ByteArrayOutputStream codes = new ByteArrayOutputStream(size * 4 + 16);
+        ByteArrayOutputStream labels = new ByteArrayOutputStream(size * 8 + 16);
+        Map<String, Integer> labelOffsets = new HashMap<>();
+        int maxCodeLength = 0;
+        byte[] previous = null;
+        for (int i = 0; i < size; i++) {
+            byte[][] record = records.get(i);
+            byte[] code = record[0];
+            if (i % BLOCK_SIZE == 0) {
+                blockOffsets[i / BLOCK_SIZE] = codes.size();
+                writeVarInt(codes, code.length);
+                codes.write(code, 0, code.length);
+            } else {
+                int prefix = commonPrefix(previous, code);
+                writeVarInt(codes, prefix);
+                writeVarInt(codes, code.length - prefix);
+                codes.write(code, prefix, code.length - prefix);
+            }
+            nameReferences[i] = labelOf(labels, labelOffsets, record[1]);
+            descReferences[i] = labelOf(labels, labelOffsets, record[2]);
+            maxCodeLength = Math.max(maxCodeLength, code.length);
+            previous = code;
+        }
+
+        long capacity = 4L * (blockCount + 2L * size) + codes.size() + labels.size() + 4;
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Dictionary too large: " + capacity + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) capacity);
+        for (int offset : blockOffsets) {
+            buffer.putInt(offset);
+        }
+        for (int reference : nameReferences) {
+            buffer.putInt(reference);
+        }
+        for (int reference : descReferences) {
+            buffer.putInt(reference);
+        }
+        buffer.put(codes.toByteArray());
+        int labelsStart = buffer.position();
+        buffer.put(labels.toByteArray());
+        buffer.putInt(labelsStart);
+        return new FrontCodedDictionary(buffer.asReadOnlyBuffer(), size, maxCodeLength);
+    }
+
+    /**
+     * Returns the ordinal of the code, which is its rank in the order of the UTF-8 bytes of the codes.
+     *
+     * @param code the code, in its string form
+     * @return the ordinal, if not found, return -1
+     */
+    public int ordinalOf(String code) {
+        if (code == null || size == 0) {
+            return -1;
+        }
+
+        byte[] key = code.getBytes(StandardCharsets.UTF_8);
+        // the last block whose first code is less than or equal to the key
+        int low = 0;
+        int high = (size - 1) / BLOCK_SIZE;
+        int block = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareHead(middle, key);
+            if (comparison == 0) {
+                return middle * BLOCK_SIZE;
+            }
+            if (comparison < 0) {
+                block = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        if (block < 0) {
+            return -1;
+        }
+
+        // the first code is less than the key, the next ones are compared in order
+        byte[] current = new byte[maxCodeLength];
+        int[] position = {codesStart + buffer.getInt(4 * block)};
+        readHead(position, current);
+        int end = Math.min((block + 1) * BLOCK_SIZE, size);
+        for (int ordinal = block * BLOCK_SIZE + 1; ordinal < end; ordinal++) {
+            int length = readNext(position, current);
+            int comparison = EncodedRows.compare(current, length, key);
+            if (comparison == 0) {
+                return ordinal;
+            }
+            if (comparison > 0) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Whether the dictionary has the code.
+     *
+     * @param code the code, in its string form
+     * @return {@code true} if the dictionary has the code
+     */
+    public boolean contains(String code) {
+        return ordinalOf(code) >= 0;
+    }
+
+    /**
+     * Gets the name of the code.
+     *
+     * @param code the code, in its string form
+     * @return the name, if not found or null, return null
+     */
+    public String nameOf(String code) {
+        int ordinal = ordinalOf(code);
+        return ordinal < 0 ? null : label(buffer.getInt(namesStart + 4 * ordinal));
+    }
+
+    /**
+     * Gets the desc of the code.
+     *
+     * @param code the code, in its string form
+     * @return the desc, if not found or null, return null
+     */
+    public String descOf(String code) {
+        int ordinal = ordinalOf(code);
+        return ordinal < 0 ? null : label(buffer.getInt(descsStart + 4 * ordinal));
+    }
+
+    /**
+     * Gets the code of the ordinal.
+     *
+     * @param ordinal the ordinal, from 0 to {@link #size()} exclusive
+     * @return the code
+     * @throws IndexOutOfBoundsException if the ordinal is out of range
+     */
+    public String codeAt(int ordinal) {
+        checkOrdinal(ordinal);
+        byte[] current = new byte[maxCodeLength];
+        int[] position = {codesStart + buffer.getInt(4 * (ordinal / BLOCK_SIZE))};
+        int length = readHead(position, current);
+        for (int i = ordinal % BLOCK_SIZE; i > 0; i--) {
+            length = readNext(position, current);
+        }
+        return new String(current, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the name of the ordinal.
+     *
+     * @param ordinal the ordinal, from 0 to {@link #size()} exclusive
+     * @return the name, nullable
+     * @throws IndexOutOfBoundsException if the ordinal is out of range
+     */
+    public String nameAt(int ordinal) {
+        return label(buffer.getInt(namesStart + 4 * checkOrdinal(ordinal)));
+    }
+
+    /**
+     * Gets the desc of the ordinal.
+     *
+     * @param ordinal the ordinal, from 0 to {@link #size()} exclusive
+     * @return the desc, nullable
+     * @throws IndexOutOfBoundsException if the ordinal is out of range
+     */
+    public String descAt(int ordinal) {
+        return label(buffer.getInt(descsStart + 4 * checkOrdinal(ordinal)));
+    }
+
+    /**
+     * Returns the number of codes.
+     *
+     * @return the number of codes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the bytes of the off-heap buffer of the dictionary, the heap only holds the buffer object and this
+     * dictionary.
+     *
+     * @return the capacity of the buffer
+     */
+    public long offHeapBytes() {
+        return buffer.capacity();
+    }
+
+    @Override
+    public String toString() {
+        return "FrontCodedDictionary{" +
+                "size=" + size +
+                ", offHeapBytes=" + buffer.capacity() +
+                '}';
+    }
+
+    private int checkOrdinal(int ordinal) {
+        if (ordinal < 0 || ordinal >= size) {
+            throw new IndexOutOfBoundsException("Ordinal: " + ordinal + ", Size: " + size);
+        }
+        return ordinal;
+    }
+
+    /**
+     * Compares the first code of the block with the key, as unsigned bytes, without copying it.
+     */
+    private int compareHead(int block, byte[] key) {
+        int[] position = {codesStart + buffer.getInt(4 * block)};
+        int length = readVarInt(position);
+        int start = position[0];
+        for (int i = 0, n = Math.min(length, key.length); i < n; i++) {
+            int comparison = Integer.compare(buffer.get(start + i) & 0xFF, key[i] & 0xFF);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private int readHead(int[] position, byte[] current) {
+        int length = readVarInt(position);
+        readBytes(position, current, 0, length);
+        return length;
+    }
+
+    /**
+     * Reads the next code of a block over the previous one, which shares its prefix.
+     */
+    private int readNext(int[] position, byte[] current) {
+        int prefix = readVarInt(position);
+        int suffix = readVarInt(position);
+        readBytes(position, current, prefix, suffix);
+        return prefix + suffix;
+    }
+
+    private void readBytes(int[] position, byte[] target, int offset, int length) {
+        int start = position[0];
+        for (int i = 0; i < length; i++) {
+            target[offset + i] = buffer.get(start + i);
+        }
+        position[0] = start + length;
+    }
+
+    private String label(int reference) {
+        if (reference == NULL_LABEL) {
+            return null;
+        }
+
+        int[] position = {labelsStart + reference};
+        int length = readVarInt(position);
+        byte[] bytes = new byte[length];
+        readBytes(position, bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int readVarInt(int[] position) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get(position[0]++);
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * Appends the label to the labels unless an equal one has been, and returns its offset.
+     */
+    private static int labelOf(ByteArrayOutputStream labels, Map<String, Integer> labelOffsets, byte[] label) {
+        if (label == null) {
+            return NULL_LABEL;
+        }
+
+        // a lossless string of the bytes, so that they don't have to be decoded
+        String key = new String(label, StandardCharsets.ISO_8859_1);
+        Integer offset = labelOffsets.get(key);
+        if (offset == null) {
+            offset = labels.size();
+            labelOffsets.put(key, offset);
+            writeVarInt(labels, label.length);
+            labels.write(label, 0, label.length);
+        }
+        return offset;
+    }
+
+    private static int commonPrefix(byte[] bytes1, byte[] bytes2) {
+        int n = Math.min(bytes1.length, bytes2.length);
+        int i = 0;
+        while (i < n && bytes1[i] == bytes2[i]) {
+            i++;
+        }
+        return i;
+    }
+
+}
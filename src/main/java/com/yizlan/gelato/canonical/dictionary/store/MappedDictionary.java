@@ -0,0 +1,390 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.dictionary.store;
+
+import com.yizlan.gelato.canonical.dictionary.BiDictionary;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A read-only dictionary backed by a memory-mapped binary file, for dictionaries of millions of rows such as
+ * administrative regions or bank branches, which would take seconds to load and gigabytes of heap as objects.
+ * <p>
+ * The file is written once by {@link #write(Path, Collection)} and mapped by {@link #open(Path)}, which only checks
+ * its header: nothing is deserialized up-front, and the pages are loaded by the operating system on demand and
+ * shared by the processes mapping the same file. A lookup is a binary search over the sorted index of the file,
+ * it only decodes the name or the desc it returns.
+ * <p>
+ * Codes, names and descs are stored as the UTF-8 bytes of their {@link Object#toString()}, so codes are looked up
+ * by their string form. The layout of the file, in big-endian order, is:
+ * <pre>
+ * header  magic "GDIC", format version, row count        3 x int
+ * index   offsets of the rows, sorted by code bytes      row count x int
+ * rows    code, name and desc, each as a length          int, -1 for null
+ *         followed by the bytes
+ * </pre>
+ * Since offsets are ints, a file is limited to 2 GB. Instances are thread-safe.
+ *
+ * @author Zen Gershon
+ * @see DictionarySnapshot
+ * @since 2.8
+ */
+public final class MappedDictionary {
+
+    private static final int MAGIC = 0x47444943;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_SIZE = 12;
+
+    private static final int NULL_LENGTH = -1;
+
+    private final Path file;
+
+    private final ByteBuffer buffer;
+
+    private final int size;
+
+    private MappedDictionary(Path file, ByteBuffer buffer, int size) {
+        this.file = file;
+        this.buffer = buffer;
+        this.size = size;
+    }
+
+    /**
+     * Writes the rows to a dictionary file. The file is written to a temporary file next to the target and moved in
+     * place, so that readers which mapped the previous file keep a consistent view. The temporary file is deleted if
+     * the write fails. The temporary file is created with the permissions of a new file, and on POSIX file systems
+     * it takes the permissions of the file it replaces, so that the file stays readable by the processes sharing it.
+     *
+     * @param file the file to write, replaced if it exists
+     * @param rows the rows, null elements are ignored, such as the {@link DictionarySnapshot#entries()}
+     * @throws IllegalArgumentException if two rows have the same code, or if the file would exceed 2 GB
+     * @throws NullPointerException     if a code is null
+     * @throws UncheckedIOException     if the file can't be written
+     */
+    public static void write(Path file, Collection<? extends BiDictionary<?, ?>> rows) {
+        Objects.requireNonNull(file, "File cannot be null");
+        Objects.requireNonNull(rows, "Rows cannot be null");
+
+        List<byte[][]> records = EncodedRows.encode(rows);
+        long length = HEADER_SIZE + 4L * records.size();
+        for (byte[][] record : records) {
+            length += recordLength(record);
+        }
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Dictionary file too large: " + length + " bytes");
+        }
+
+        try {
+            Path temporary = createTemporary(file);
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                        Files.newOutputStream(temporary), 1 << 16))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(FORMAT_VERSION);
+                    out.writeInt(records.size());
+                    int offset = HEADER_SIZE + 4 * records.size();
+                    for (byte[][] record : records) {
+                        out.writeInt(offset);
+                        offset += recordLength(record);
+                    }
+                    for (byte[][] record : records) {
+                        for (byte[] field : record) {
+                            writeField(out, field);
+                        }
+                    }
+                }
+                move(temporary, file);
+            } finally {
+                // left over only if the write or the move failed
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Creates the temporary file next to the target, under a unique name so that concurrent writers don't share it.
+     * Unlike {@link Files#createTempFile}, which restricts the file to its owner, the file is created with the
+     * default permissions, and those of the target if it exists.
+     */
+    private static Path createTemporary(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        String prefix = file.getFileName() + ".";
+        Path temporary;
+        while (true) {
+            temporary = directory.resolve(prefix + Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36)
+                    + ".tmp");
+            try {
+                Files.createFile(temporary);
+                break;
+            } catch (FileAlreadyExistsException e) {
+                // to do nothing
+            }
+        }
+
+        try {
+            if (Files.getFileStore(temporary).supportsFileAttributeView(PosixFileAttributeView.class)) {
+                Files.setPosixFilePermissions(temporary, Files.getPosixFilePermissions(file));
+            }
+        } catch (NoSuchFileException e) {
+            // the target doesn't exist yet, the default permissions are kept
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        return temporary;
+    }
+
+    /**
+     * Maps a dictionary file written by {@link #write(Path, Collection)}.
+     * <p>
+     * The mapping stays valid until the reader is garbage collected, even if the file is replaced meanwhile.
+     *
+     * @param file the file to map
+     * @return the reader of the file
+     * @throws IllegalArgumentException if the file is not a dictionary file of a supported format
+     * @throws UncheckedIOException     if the file can't be read
+     */
+    public static MappedDictionary open(Path file) {
+        Objects.requireNonNull(file, "File cannot be null");
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Not a dictionary file: " + file);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a dictionary file: " + file);
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported dictionary file version: " + buffer.getInt(4));
+        }
+        int size = buffer.getInt(8);
+        if (size < 0 || HEADER_SIZE + 4L * size > buffer.capacity()) {
+            throw new IllegalArgumentException("Corrupted dictionary file: " + file);
+        }
+        return new MappedDictionary(file, buffer, size);
+    }
+
+    /**
+     * Returns the row of the code, by a binary search over the index.
+     *
+     * @param code the code, in its string form
+     * @return the row in code order, if not found, return -1
+     */
+    public int indexOf(String code) {
+        if (code == null) {
+            return -1;
+        }
+
+        byte[] key = code.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareCode(offsetOf(middle), key);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Whether a row has the code.
+     *
+     * @param code the code, in its string form
+     * @return {@code true} if a row has the code
+     */
+    public boolean contains(String code) {
+        return indexOf(code) >= 0;
+    }
+
+    /**
+     * Gets the name of the code.
+     *
+     * @param code the code, in its string form
+     * @return the name, if not found or null, return null
+     */
+    public String nameOf(String code) {
+        int index = indexOf(code);
+        return index < 0 ? null : nameAt(index);
+    }
+
+    /**
+     * Gets the desc of the code.
+     *
+     * @param code the code, in its string form
+     * @return the desc, if not found or null, return null
+     */
+    public String descOf(String code) {
+        int index = indexOf(code);
+        return index < 0 ? null : descAt(index);
+    }
+
+    /**
+     * Gets the code of the row.
+     *
+     * @param index the row in code order, from 0 to {@link #size()} exclusive
+     * @return the code
+     * @throws IndexOutOfBoundsException if the row is out of range
+     */
+    public String codeAt(int index) {
+        return readField(offsetOf(checkIndex(index)));
+    }
+
+    /**
+     * Gets the name of the row.
+     *
+     * @param index the row in code order, from 0 to {@link #size()} exclusive
+     * @return the name, nullable
+     * @throws IndexOutOfBoundsException if the row is out of range
+     */
+    public String nameAt(int index) {
+        return readField(skipField(offsetOf(checkIndex(index))));
+    }
+
+    /**
+     * Gets the desc of the row.
+     *
+     * @param index the row in code order, from 0 to {@link #size()} exclusive
+     * @return the desc, nullable
+     * @throws IndexOutOfBoundsException if the row is out of range
+     */
+    public String descAt(int index) {
+        return readField(skipField(skipField(offsetOf(checkIndex(index)))));
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return the number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "MappedDictionary{" +
+                "file=" + file +
+                ", size=" + size +
+                '}';
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return index;
+    }
+
+    private int offsetOf(int index) {
+        return buffer.getInt(HEADER_SIZE + 4 * index);
+    }
+
+    private int skipField(int offset) {
+        int length = buffer.getInt(offset);
+        return offset + 4 + Math.max(length, 0);
+    }
+
+    /**
+     * Reads a field with absolute gets, which don't touch the position of the shared buffer.
+     */
+    private String readField(int offset) {
+        int length = buffer.getInt(offset);
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        for (int i = 0, start = offset + 4; i < length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares the code at the offset with the key, as unsigned bytes, without decoding it.
+     */
+    private int compareCode(int offset, byte[] key) {
+        int length = buffer.getInt(offset);
+        int start = offset + 4;
+        for (int i = 0, n = Math.min(length, key.length); i < n; i++) {
+            int comparison = Integer.compare(buffer.get(start + i) & 0xFF, key[i] & 0xFF);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private static long recordLength(byte[][] record) {
+        long length = 0L;
+        for (byte[] field : record) {
+            length += 4 + (field == null ? 0 : field.length);
+        }
+        return length;
+    }
+
+    private static void writeField(DataOutputStream out, byte[] field) throws IOException {
+        if (field == null) {
+            out.writeInt(NULL_LENGTH);
+        } else {
+            out.writeInt(field.length);
+            out.write(field);
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+}
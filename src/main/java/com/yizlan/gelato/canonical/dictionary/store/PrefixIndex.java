@@ -0,0 +1,179 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.dictionary.store;
+
+import com.yizlan.gelato.canonical.dictionary.TerDictionary;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * An immutable typeahead index of the names, and optionally the descs, of the rows of a {@link DictionarySnapshot},
+ * which finds the rows whose labels start with a prefix without scanning the rows.
+ * <p>
+ * The labels are folded to lower case and sorted in an array, parallel to the array of their rows. A search is a
+ * binary search for the first label not less than the prefix, followed by a walk over the matching labels until
+ * enough rows are found, so that its cost depends on the limit rather than on the number of rows. Matches are
+ * ranked in the order of their labels, and a row matching by both its name and its desc is returned once.
+ * <p>
+ * Labels are the {@link Object#toString()} of the names and the descs, null labels are not indexed. The index is
+ * built for a snapshot, it should be rebuilt when a new snapshot is published.
+ *
+ * @param <T> the type of the code field, should implement {@link Comparable} and {@link Serializable}
+ * @param <U> the type of the name field, should implement {@link Comparable} and {@link Serializable}
+ * @param <S> the type of the desc field, should implement {@link Comparable} and {@link Serializable}
+ * @author Zen Gershon
+ * @see DictionarySnapshot
+ * @since 2.8
+ */
+public final class PrefixIndex<T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable,
+        S extends Comparable<S> & Serializable> {
+
+    private final List<TerDictionary<T, U, S>> entries;
+
+    private final String[] labels;
+
+    private final int[] rows;
+
+    private final boolean indexDescs;
+
+    private PrefixIndex(List<TerDictionary<T, U, S>> entries, String[] labels, int[] rows, boolean indexDescs) {
+        this.entries = entries;
+        this.labels = labels;
+        this.rows = rows;
+        this.indexDescs = indexDescs;
+    }
+
+    /**
+     * Builds the index of the names of the rows of the snapshot.
+     *
+     * @param snapshot the snapshot, not nullable
+     * @param <T>      the type of the code field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U>      the type of the name field, should implement {@link Comparable} and {@link Serializable}
+     * @param <S>      the type of the desc field, should implement {@link Comparable} and {@link Serializable}
+     * @return the index of the names
+     */
+    public static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable,
+            S extends Comparable<S> & Serializable> PrefixIndex<T, U, S> of(DictionarySnapshot<T, U, S> snapshot) {
+        return of(snapshot, false);
+    }
+
+    /**
+     * Builds the index of the names, and optionally the descs, of the rows of the snapshot.
+     *
+     * @param snapshot    the snapshot, not nullable
+     * @param indexDescs  whether the descs are indexed as well as the names
+     * @param <T>         the type of the code field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U>         the type of the name field, should implement {@link Comparable} and {@link Serializable}
+     * @param <S>         the type of the desc field, should implement {@link Comparable} and {@link Serializable}
+     * @return the index of the labels
+     */
+    public static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable,
+            S extends Comparable<S> & Serializable> PrefixIndex<T, U, S> of(DictionarySnapshot<T, U, S> snapshot,
+                                                                          boolean indexDescs) {
+        Objects.requireNonNull(snapshot, "Snapshot cannot be null");
+        List<TerDictionary<T, U, S>> entries = snapshot.entries();
+
+        List<Object[]> pairs = new ArrayList<>(indexDescs ? entries.size() * 2 : entries.size());
+        for (int row = 0; row < entries.size(); row++) {
+            TerDictionary<T, U, S> entry = entries.get(row);
+            addLabel(pairs, entry.getName(), row);
+            if (indexDescs) {
+                addLabel(pairs, entry.getDesc(), row);
+            }
+        }
+        // rows of equal labels stay in publication order
+        pairs.sort((p1, p2) -> ((String) p1[0]).compareTo((String) p2[0]));
+
+        String[] labels = new String[pairs.size()];
+        int[] rows = new int[pairs.size()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = (String) pairs.get(i)[0];
+            rows[i] = (Integer) pairs.get(i)[1];
+        }
+        return new PrefixIndex<>(entries, labels, rows, indexDescs);
+    }
+
+    private static void addLabel(List<Object[]> pairs, Object label, int row) {
+        if (label != null) {
+            pairs.add(new Object[]{fold(label.toString()), row});
+        }
+    }
+
+    private static String fold(String label) {
+        return label.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Finds the first rows whose name, or desc if indexed, starts with the prefix, ignoring case.
+     *
+     * @param prefix the prefix typed by the user, an empty prefix matches all the rows
+     * @param limit  the maximum number of rows to return
+     * @return the unmodifiable list of the matching rows, in the order of their matching labels
+     * @throws IllegalArgumentException if {@code limit} is negative
+     */
+    public List<TerDictionary<T, U, S>> search(String prefix, int limit) {
+        Objects.requireNonNull(prefix, "Prefix cannot be null");
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative: " + limit);
+        }
+
+        String key = fold(prefix);
+        int index = Arrays.binarySearch(labels, key);
+        if (index < 0) {
+            index = -index - 1;
+        }
+
+        List<TerDictionary<T, U, S>> matches = new ArrayList<>(Math.min(limit, 16));
+        // only a row whose name and desc are both indexed can match twice, the found rows are at most limit
+        int[] found = indexDescs ? new int[Math.min(limit, labels.length)] : null;
+        for (; index < labels.length && matches.size() < limit && labels[index].startsWith(key); index++) {
+            int row = rows[index];
+            if (found == null) {
+                matches.add(entries.get(row));
+            } else if (!contains(found, matches.size(), row)) {
+                found[matches.size()] = row;
+                matches.add(entries.get(row));
+            }
+        }
+        return Collections.unmodifiableList(matches);
+    }
+
+    private static boolean contains(int[] rows, int length, int row) {
+        for (int i = 0; i < length; i++) {
+            if (rows[i] == row) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of indexed labels.
+     *
+     * @return the number of labels
+     */
+    public int size() {
+        return labels.length;
+    }
+
+}
@@ -19,6 +19,7 @@ package com.yizlan.gelato.canonical.enums;
 import com.yizlan.gelato.canonical.copier.LabelProvider;
 import com.yizlan.gelato.canonical.copier.ValueProvider;
 import com.yizlan.gelato.canonical.dictionary.BiDictionary;
+import com.yizlan.gelato.canonical.dictionary.InternedBiDictionary;
 import com.yizlan.gelato.canonical.protocol.BiResult;
 
 import java.io.Serializable;
@@ -31,8 +32,6 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Provide fields which named value and label with the different type for enum.
@@ -54,7 +53,9 @@ public interface BiEnum<T extends Comparable<T> & Serializable, U extends Compar
      *
      * @param <T> the type of the code, which must implement {@link Comparable} and {@link Serializable}
      * @param <U> the type of the name, which must implement {@link Comparable} and {@link Serializable}
+     * @deprecated its setters are public, use {@link #toInternedList(BiEnum[])} for immutable entries since 2.8
      */
+    @Deprecated
     class ImmutableBiDictionary<T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable>
             implements BiDictionary<T, U>, Serializable {
         private static final long serialVersionUID = 1L;
@@ -96,6 +97,71 @@ public interface BiEnum<T extends Comparable<T> & Serializable, U extends Compar
         }
     }
 
+    /**
+     * A read-only {@link BiDictionary} backed by a value of the enum, it wraps the value without copying its code
+     * and name.
+     *
+     * @param <T> the type of the code, which must implement {@link Comparable} and {@link Serializable}
+     * @param <U> the type of the name, which must implement {@link Comparable} and {@link Serializable}
+     * @since 2.8
+     */
+    class BiDictionaryAdapter<T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable>
+            implements BiDictionary<T, U>, Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final BiEnum<T, U> enumValue;
+
+        BiDictionaryAdapter(BiEnum<T, U> enumValue) {
+            this.enumValue = Objects.requireNonNull(enumValue, "enumValue cannot be null");
+        }
+
+        @Override
+        public T getCode() {
+            return enumValue.getValue();
+        }
+
+        @Override
+        public void setCode(T code) {
+            throw new UnsupportedOperationException("This method is not supported.");
+        }
+
+        @Override
+        public U getName() {
+            return enumValue.getLabel();
+        }
+
+        @Override
+        public void setName(U name) {
+            throw new UnsupportedOperationException("This method is not supported.");
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            BiDictionaryAdapter<?, ?> that = (BiDictionaryAdapter<?, ?>) obj;
+            return Objects.equals(enumValue.getValue(), that.getCode()) &&
+                    Objects.equals(enumValue.getLabel(), that.getName());
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(enumValue.getValue()) + Objects.hashCode(enumValue.getLabel());
+        }
+
+        @Override
+        public String toString() {
+            return "BiDictionaryAdapter{" +
+                    "code=" + enumValue.getValue() +
+                    ", name=" + enumValue.getLabel() +
+                    '}';
+        }
+    }
+
     /**
      * Converts the values of this enum to a list of {@link BiDictionary} objects.
      * Each element in the list corresponds to a dictionary entry for an enumeration value and its label.
@@ -112,6 +178,74 @@ public interface BiEnum<T extends Comparable<T> & Serializable, U extends Compar
         return toList(enumValues, ImmutableBiDictionary::new);
     }
 
+    /**
+     * Converts the values of this enum to a list of immutable {@link InternedBiDictionary} objects.
+     * Each element in the list corresponds to a dictionary entry for an enumeration value and its label, the
+     * entries being deduplicated by their code and name. Note that the null elements will be ignored.
+     * <p>
+     * Unlike the entries of {@link #toList(BiEnum[])}, the entries can't be modified and are shared with any other
+     * equal entry, so that they can be held by long-lived caches without duplicating equal rows.
+     *
+     * @param enumValues all values of this enum, not nullable
+     * @param <T>        the type of the value field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U>        the type of the label field, should implement {@link Comparable} and {@link Serializable}
+     * @return a new list of {@link InternedBiDictionary} objects, not nullable
+     * @throws NullPointerException if {@code enumValues} is null
+     * @since 2.8
+     */
+    static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable>
+    List<BiDictionary<T, U>> toInternedList(BiEnum<T, U>[] enumValues) {
+        Objects.requireNonNull(enumValues);
+        return Distinct.toList(enumValues, item -> InternedBiDictionary.of(item.getValue(), item.getLabel()),
+                Function.identity());
+    }
+
+    /**
+     * Returns the dictionary snapshot of the enum class, which holds the same entries as
+     * {@code toInternedList(enumClazz.getEnumConstants())}.
+     * <p>
+     * The snapshot is computed once per enum class and shared by all callers, so that it can be returned by hot
+     * endpoints without any allocation. It can't be modified, neither the list nor its entries.
+     *
+     * @param enumClazz the class of enum, not nullable
+     * @param <E>       the type of the enum
+     * @param <T>       the type of the value field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U>       the type of the label field, should implement {@link Comparable} and {@link Serializable}
+     * @return an unmodifiable list of {@link BiDictionary} objects
+     * @throws NullPointerException     if {@code enumClazz} is null
+     * @throws IllegalArgumentException if {@code enumClazz} is not an enum implementing {@link BiEnum}
+     * @since 2.8
+     */
+    @SuppressWarnings("unchecked")
+    static <E extends Enum<E> & BiEnum<T, U>, T extends Comparable<T> & Serializable,
+            U extends Comparable<U> & Serializable> List<BiDictionary<T, U>> dictionaryOf(Class<E> enumClazz) {
+        Objects.requireNonNull(enumClazz, "Enum class cannot be null");
+        return (List<BiDictionary<T, U>>) EnumDictionaries.BI_DICTIONARIES.get(enumClazz);
+    }
+
+    /**
+     * Returns a read-only view of the enum constants as {@link BiDictionary} objects, in declaration order.
+     * <p>
+     * The view holds one {@link BiDictionaryAdapter} per constant, created once per enum class and shared by all
+     * callers, so that getting the view doesn't allocate anything. Unlike {@link #toList(BiEnum[])}, the
+     * constants are not deduplicated, the view has as many elements as the enum has constants.
+     *
+     * @param enumClazz the class of enum, not nullable
+     * @param <E>       the type of the enum
+     * @param <T>       the type of the value field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U>       the type of the label field, should implement {@link Comparable} and {@link Serializable}
+     * @return an unmodifiable list of {@link BiDictionary} objects
+     * @throws NullPointerException     if {@code enumClazz} is null
+     * @throws IllegalArgumentException if {@code enumClazz} is not an enum implementing {@link BiEnum}
+     * @since 2.8
+     */
+    @SuppressWarnings("unchecked")
+    static <E extends Enum<E> & BiEnum<T, U>, T extends Comparable<T> & Serializable,
+            U extends Comparable<U> & Serializable> List<BiDictionary<T, U>> dictionaryView(Class<E> enumClazz) {
+        Objects.requireNonNull(enumClazz, "Enum class cannot be null");
+        return (List<BiDictionary<T, U>>) EnumDictionaries.BI_VIEWS.get(enumClazz);
+    }
+
     /**
      * Converts the values of this enum to a list of specified {@link BiDictionary} implementations.
      * This method allows for the creation of a list of any {@link BiDictionary} implementation by providing a supplier.
@@ -137,6 +271,8 @@ public interface BiEnum<T extends Comparable<T> & Serializable, U extends Compar
      * Converts the values of this enum into a list of a specific type,
      * and also using a mapping function to produce unique keys to deduplicate the list.
      * Note that the null elements will be ignored.
+     * <p>
+     * The first object of each key is kept.
      *
      * @param <T>          the generic type T, which must implement {@link Comparable} and {@link Serializable}
      * @param <U>          the generic type U, which must implement {@link Comparable} and {@link Serializable}
@@ -158,18 +294,53 @@ public interface BiEnum<T extends Comparable<T> & Serializable, U extends Compar
             return Collections.emptyList();
         }
 
-        R r = supplier.get();
-        Objects.requireNonNull(r);
-        return Stream.of(enumValues)
-                .filter(Objects::nonNull)
-                .map(item -> {
-                    R object = supplier.get();
-                    object.setCode(item.getValue());
-                    object.setName(item.getLabel());
-                    return object;
-                })
-                .filter(distinctByKey(keyExtractor))
-                .collect(Collectors.toList());
+        return Distinct.toList(enumValues, item -> {
+            R object = Objects.requireNonNull(supplier.get());
+            object.setCode(item.getValue());
+            object.setName(item.getLabel());
+            return object;
+        }, keyExtractor);
+    }
+
+    /**
+     * Converts the values of this enum into a list of a specific type like
+     * {@link #toList(BiEnum[], Supplier, Function)}, processing large arrays in parallel.
+     * Note that the null elements will be ignored.
+     * <p>
+     * This is meant for large arrays, such as dictionaries loaded from configuration. Arrays of at least 8192
+     * elements are processed by the common fork/join pool, so {@code supplier} and {@code keyExtractor} are called
+     * concurrently from several threads: they must be thread-safe, should not block, and must not rely on the
+     * calling thread, such as its thread locals or its context class loader. Smaller arrays are processed on the
+     * calling thread. Either way, the returned list is the same as the one of
+     * {@link #toList(BiEnum[], Supplier, Function)}.
+     *
+     * @param <T>          the generic type T, which must implement {@link Comparable} and {@link Serializable}
+     * @param <U>          the generic type U, which must implement {@link Comparable} and {@link Serializable}
+     * @param <R>          the generic type R, which must implement the {@link BiDictionary} interface
+     * @param enumValues   all values of this enum, not nullable
+     * @param supplier     a thread-safe supplier for instances of type R
+     * @param keyExtractor a thread-safe function to extract unique keys from instances of type R
+     * @return a list of the specified type R
+     * @throws NullPointerException if {@code enumValues} or {@code supplier}
+     *                              or {@link Supplier#get()} or {@link Function#apply(Object)} is null
+     * @since 2.8
+     */
+    static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable,
+            R extends BiDictionary<T, U>> List<R> toListInParallel(BiEnum<T, U>[] enumValues,
+                                                                   Supplier<R> supplier,
+                                                                   Function<? super R, Object> keyExtractor) {
+        Objects.requireNonNull(enumValues);
+        Objects.requireNonNull(supplier);
+        if (enumValues.length == 0) {
+            return Collections.emptyList();
+        }
+
+        return Distinct.toListInParallel(enumValues, item -> {
+            R object = Objects.requireNonNull(supplier.get());
+            object.setCode(item.getValue());
+            object.setName(item.getLabel());
+            return object;
+        }, keyExtractor);
     }
 
     /**
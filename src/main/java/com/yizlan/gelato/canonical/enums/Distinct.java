@@ -0,0 +1,158 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.enums;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Maps arrays of values to lists of objects, keeping the first object of each key in encounter order.
+ * <p>
+ * {@link #toList} processes the array in a single pass backed by an open-addressing set, on the calling thread.
+ * {@link #toListInParallel} is an explicit opt-in for large arrays, which runs the functions in the common
+ * fork/join pool: the objects and their keys are computed in parallel, the first index of each key is reduced
+ * concurrently, and the objects at those indexes are collected in encounter order, so that both methods return
+ * the same list.
+ *
+ * @author Zen Gershon
+ * @since 2.8
+ */
+final class Distinct {
+
+    /**
+     * The length from which {@link #toListInParallel} processes arrays in parallel.
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    private Distinct() {
+        // to do nothing
+    }
+
+    /**
+     * Maps the non-null values to objects, keeping the first object of each key.
+     *
+     * @param values       the values, null elements are ignored
+     * @param mapper       a function to map a value to an object
+     * @param keyExtractor a function to extract the key of an object
+     * @param <E>          the type of the values
+     * @param <R>          the type of the objects
+     * @return a new list of the distinct objects in encounter order
+     * @throws NullPointerException if an object or a key is null
+     */
+    static <E, R> List<R> toList(E[] values, Function<? super E, ? extends R> mapper,
+                                 Function<? super R, ?> keyExtractor) {
+        List<R> objects = new ArrayList<>(values.length);
+        KeySet keys = new KeySet(values.length);
+        for (E value : values) {
+            if (value != null) {
+                R object = Objects.requireNonNull(mapper.apply(value));
+                if (keys.add(Objects.requireNonNull(keyExtractor.apply(object)))) {
+                    objects.add(object);
+                }
+            }
+        }
+        return objects;
+    }
+
+    /**
+     * Maps the non-null values to objects in parallel, keeping the first object of each key.
+     * <p>
+     * The functions are called concurrently by the threads of the common fork/join pool, so they must be
+     * thread-safe and should not block. Arrays shorter than {@link #PARALLEL_THRESHOLD} are processed by
+     * {@link #toList} on the calling thread.
+     *
+     * @param values       the values, null elements are ignored
+     * @param mapper       a thread-safe function to map a value to an object
+     * @param keyExtractor a thread-safe function to extract the key of an object
+     * @param <E>          the type of the values
+     * @param <R>          the type of the objects
+     * @return a new list of the distinct objects in encounter order
+     * @throws NullPointerException if an object or a key is null
+     */
+    @SuppressWarnings("unchecked")
+    static <E, R> List<R> toListInParallel(E[] values, Function<? super E, ? extends R> mapper,
+                                           Function<? super R, ?> keyExtractor) {
+        if (values.length < PARALLEL_THRESHOLD) {
+            return toList(values, mapper, keyExtractor);
+        }
+
+        int length = values.length;
+        Object[] objects = new Object[length];
+        Object[] keys = new Object[length];
+        IntStream.range(0, length).parallel().forEach(i -> {
+            if (values[i] != null) {
+                R object = Objects.requireNonNull(mapper.apply(values[i]));
+                objects[i] = object;
+                keys[i] = Objects.requireNonNull(keyExtractor.apply(object));
+            }
+        });
+
+        Map<Object, Integer> firstIndexes = new ConcurrentHashMap<>(length);
+        IntStream.range(0, length).parallel().forEach(i -> {
+            if (keys[i] != null) {
+                firstIndexes.merge(keys[i], i, Math::min);
+            }
+        });
+
+        return IntStream.range(0, length).parallel()
+                .filter(i -> keys[i] != null && firstIndexes.get(keys[i]) == i)
+                .mapToObj(i -> (R) objects[i])
+                .collect(Collectors.toCollection(() -> new ArrayList<>(firstIndexes.size())));
+    }
+
+    /**
+     * An insert-only hash set with open addressing and linear probing, which doesn't allocate per key.
+     */
+    private static final class KeySet {
+
+        private final Object[] table;
+
+        private KeySet(int expectedSize) {
+            this.table = new Object[Integer.highestOneBit(Math.max(expectedSize * 2 - 1, 1)) << 1];
+        }
+
+        /**
+         * Adds the key to the set.
+         *
+         * @param key the key, not nullable
+         * @return {@code true} if the set did not already contain the key
+         */
+        private boolean add(Object key) {
+            Object[] keys = this.table;
+            int mask = keys.length - 1;
+            int h = key.hashCode();
+            int slot = (h ^ (h >>> 16)) & mask;
+            Object current;
+            while ((current = keys[slot]) != null) {
+                if (current.equals(key)) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            return true;
+        }
+
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.enums;
+
+import com.yizlan.gelato.canonical.util.ClassCache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Dictionary snapshots and views of enum classes, computed once per enum class and shared by all callers.
+ *
+ * @author Zen Gershon
+ * @since 2.8
+ */
+final class EnumDictionaries {
+
+    static final ClassCache<List<?>> BI_DICTIONARIES = new ClassCache<>(EnumDictionaries::biDictionaries);
+
+    static final ClassCache<List<?>> TER_DICTIONARIES = new ClassCache<>(EnumDictionaries::terDictionaries);
+
+    static final ClassCache<List<?>> BI_VIEWS = new ClassCache<>(EnumDictionaries::biView);
+
+    static final ClassCache<List<?>> TER_VIEWS = new ClassCache<>(EnumDictionaries::terView);
+
+    private EnumDictionaries() {
+        // to do nothing
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static List<?> biDictionaries(Class<?> type) {
+        // the interned entries are immutable
+        return Collections.unmodifiableList(BiEnum.toInternedList((BiEnum[]) constantsOf(type, BiEnum.class)));
+    }
+
+    private static List<?> terDictionaries(Class<?> type) {
+        // the adapters are read-only, they are shared with the view
+        return Collections.unmodifiableList(new ArrayList<>(new LinkedHashSet<>(TER_VIEWS.get(type))));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static List<?> biView(Class<?> type) {
+        Object[] constants = constantsOf(type, BiEnum.class);
+        BiEnum.BiDictionaryAdapter[] adapters = new BiEnum.BiDictionaryAdapter[constants.length];
+        for (int i = 0; i < constants.length; i++) {
+            adapters[i] = new BiEnum.BiDictionaryAdapter((BiEnum) constants[i]);
+        }
+        return Collections.unmodifiableList(Arrays.asList(adapters));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static List<?> terView(Class<?> type) {
+        Object[] constants = constantsOf(type, TerEnum.class);
+        TerEnum.TerDictionaryAdapter[] adapters = new TerEnum.TerDictionaryAdapter[constants.length];
+        for (int i = 0; i < constants.length; i++) {
+            adapters[i] = new TerEnum.TerDictionaryAdapter((TerEnum) constants[i]);
+        }
+        return Collections.unmodifiableList(Arrays.asList(adapters));
+    }
+
+    /**
+     * Returns the constants of the enum class, checking that the class implements the given interface.
+     *
+     * @param type          the class of enum
+     * @param interfaceType the interface the enum should implement
+     * @return the constants of the enum class
+     * @throws IllegalArgumentException if the class is not an enum implementing the interface
+     */
+    private static Object[] constantsOf(Class<?> type, Class<?> interfaceType) {
+        if (!type.isEnum() || !interfaceType.isAssignableFrom(type)) {
+            throw new IllegalArgumentException(type.getName() + " is not an enum implementing " +
+                    interfaceType.getSimpleName() + ".");
+        }
+        return type.getEnumConstants();
+    }
+
+}
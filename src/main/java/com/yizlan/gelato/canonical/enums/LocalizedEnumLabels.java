@@ -0,0 +1,300 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.enums;
+
+import com.yizlan.gelato.canonical.dictionary.BiDictionary;
+import com.yizlan.gelato.canonical.dictionary.InternedBiDictionary;
+import com.yizlan.gelato.canonical.dictionary.InternedTerDictionary;
+import com.yizlan.gelato.canonical.dictionary.TerDictionary;
+import com.yizlan.gelato.canonical.util.ClassCache;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.Objects;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Localized labels and descs of {@link BiEnum} and {@link TerEnum} constants, resolved once per enum class and
+ * locale.
+ * <p>
+ * The first use of an enum class in a locale resolves the label, and the desc of {@link TerEnum} constants, of all
+ * its constants, and stores them in arrays indexed by ordinal together with the localized dictionaries. Later
+ * lookups are an array read, and the localized {@link #toList(Class, Locale)} or {@link #toMap(Class, Locale)}
+ * return the cached snapshots like {@link BiEnum#dictionaryOf(Class)}, so that localizing a response costs the
+ * same as not localizing it. {@link #clear()} drops the snapshots, for instance when the bundles are reloaded.
+ * <p>
+ * Localized labels and descs are strings, whatever the types of the labels and descs of the enum.
+ *
+ * @author Zen Gershon
+ * @since 2.8
+ */
+public final class LocalizedEnumLabels {
+
+    private static final String DESC_SUFFIX = ".desc";
+
+    private final BiFunction<? super Enum<?>, ? super Locale, String> labelResolver;
+
+    private final BiFunction<? super Enum<?>, ? super Locale, String> descResolver;
+
+    private final ClassCache<Map<Locale, Snapshot>> snapshots = new ClassCache<>(type -> new ConcurrentHashMap<>());
+
+    private LocalizedEnumLabels(BiFunction<? super Enum<?>, ? super Locale, String> labelResolver,
+                                BiFunction<? super Enum<?>, ? super Locale, String> descResolver) {
+        this.labelResolver = labelResolver;
+        this.descResolver = descResolver;
+    }
+
+    /**
+     * Creates the localized labels of the resolvers. The labels cache the resolved strings, so they should be
+     * created once and kept by the caller.
+     *
+     * @param labelResolver the function resolving the label of a constant in a locale, called once per constant
+     *                      and locale, not nullable
+     * @param descResolver  the function resolving the desc of a {@link TerEnum} constant in a locale, called once
+     *                      per constant and locale, not nullable
+     * @return the localized labels
+     */
+    public static LocalizedEnumLabels of(BiFunction<? super Enum<?>, ? super Locale, String> labelResolver,
+                                         BiFunction<? super Enum<?>, ? super Locale, String> descResolver) {
+        Objects.requireNonNull(labelResolver, "Label resolver cannot be null");
+        Objects.requireNonNull(descResolver, "Desc resolver cannot be null");
+        return new LocalizedEnumLabels(labelResolver, descResolver);
+    }
+
+    /**
+     * Creates the localized labels of a resource bundle, loaded by the class loader of the enum class.
+     * <p>
+     * The key of the label of a constant is the simple name of its enum class and its name, such as
+     * {@code GenderEnum.MAN}, and the key of its desc has a {@code .desc} suffix, such as
+     * {@code WarningSignEnum.RED.desc}. A missing bundle or key falls back to the label or the desc of the constant.
+     *
+     * @param baseName the base name of the resource bundle, not nullable
+     * @return the localized labels
+     */
+    public static LocalizedEnumLabels ofBundle(String baseName) {
+        Objects.requireNonNull(baseName, "Base name cannot be null");
+        return new LocalizedEnumLabels(
+                (constant, locale) -> bundleString(baseName, constant, locale, "",
+                        ((BiEnum<?, ?>) constant).getLabel()),
+                (constant, locale) -> bundleString(baseName, constant, locale, DESC_SUFFIX,
+                        ((TerEnum<?, ?, ?>) constant).getDesc()));
+    }
+
+    private static String bundleString(String baseName, Enum<?> constant, Locale locale, String suffix,
+                                       Object fallback) {
+        Class<?> type = constant.getDeclaringClass();
+        try {
+            ResourceBundle bundle = ResourceBundle.getBundle(baseName, locale, type.getClassLoader());
+            String key = type.getSimpleName() + "." + constant.name() + suffix;
+            if (bundle.containsKey(key)) {
+                return bundle.getString(key);
+            }
+        } catch (MissingResourceException e) {
+            // to fall back to the constant
+        }
+        return fallback == null ? null : fallback.toString();
+    }
+
+    /**
+     * Gets the localized label of the constant.
+     *
+     * @param constant the constant, not nullable
+     * @param locale   the locale, not nullable
+     * @param <E>      the type of the enum
+     * @return the localized label
+     */
+    public <E extends Enum<E> & BiEnum<?, ?>> String labelOf(E constant, Locale locale) {
+        Objects.requireNonNull(constant, "Constant cannot be null");
+        return snapshotOf(constant.getDeclaringClass(), locale).labels[constant.ordinal()];
+    }
+
+    /**
+     * Gets the localized desc of the constant.
+     *
+     * @param constant the constant, not nullable
+     * @param locale   the locale, not nullable
+     * @param <E>      the type of the enum
+     * @return the localized desc
+     */
+    public <E extends Enum<E> & TerEnum<?, ?, ?>> String descOf(E constant, Locale locale) {
+        Objects.requireNonNull(constant, "Constant cannot be null");
+        return snapshotOf(constant.getDeclaringClass(), locale).descs[constant.ordinal()];
+    }
+
+    /**
+     * Returns the localized dictionary of the enum class, which holds the same entries as
+     * {@link BiEnum#toInternedList(BiEnum[])} with localized labels, computed once per enum class and locale.
+     *
+     * @param enumClazz the class of enum, not nullable
+     * @param locale    the locale, not nullable
+     * @param <E>       the type of the enum
+     * @param <T>       the type of the value field, should implement {@link Comparable} and {@link Serializable}
+     * @return an unmodifiable list of immutable {@link BiDictionary} objects
+     * @throws IllegalArgumentException if {@code enumClazz} is not an enum implementing {@link BiEnum}
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends Enum<E> & BiEnum<T, ?>, T extends Comparable<T> & Serializable>
+            List<BiDictionary<T, String>> toList(Class<E> enumClazz, Locale locale) {
+        return (List<BiDictionary<T, String>>) snapshotOf(enumClazz, locale).dictionaries;
+    }
+
+    /**
+     * Returns the localized dictionary of the enum class, which holds the same entries as
+     * {@link TerEnum#toList(TerEnum[])} with localized labels and descs, computed once per enum class and locale.
+     *
+     * @param enumClazz the class of enum, not nullable
+     * @param locale    the locale, not nullable
+     * @param <E>       the type of the enum
+     * @param <T>       the type of the value field, should implement {@link Comparable} and {@link Serializable}
+     * @return an unmodifiable list of immutable {@link TerDictionary} objects
+     * @throws IllegalArgumentException if {@code enumClazz} is not an enum implementing {@link TerEnum}
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends Enum<E> & TerEnum<T, ?, ?>, T extends Comparable<T> & Serializable>
+            List<TerDictionary<T, String, String>> toTerList(Class<E> enumClazz, Locale locale) {
+        return (List<TerDictionary<T, String, String>>) terSnapshotOf(enumClazz, locale).dictionaries;
+    }
+
+    /**
+     * Returns the map of the values of the enum class to their localized labels, like
+     * {@link BiEnum#toMap(BiEnum[])}, computed once per enum class and locale.
+     *
+     * @param enumClazz the class of enum, not nullable
+     * @param locale    the locale, not nullable
+     * @param <E>       the type of the enum
+     * @param <T>       the type of the value field, should implement {@link Comparable} and {@link Serializable}
+     * @return an unmodifiable map of the values to their localized labels
+     * @throws IllegalArgumentException if {@code enumClazz} is not an enum implementing {@link BiEnum}
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends Enum<E> & BiEnum<T, ?>, T extends Comparable<T> & Serializable> Map<T, String> toMap(
+            Class<E> enumClazz, Locale locale) {
+        return (Map<T, String>) snapshotOf(enumClazz, locale).labelMap;
+    }
+
+    /**
+     * Returns the map of the values of the enum class to their localized descs, like
+     * {@link TerEnum#toDescMap(TerEnum[])}, computed once per enum class and locale.
+     *
+     * @param enumClazz the class of enum, not nullable
+     * @param locale    the locale, not nullable
+     * @param <E>       the type of the enum
+     * @param <T>       the type of the value field, should implement {@link Comparable} and {@link Serializable}
+     * @return an unmodifiable map of the values to their localized descs
+     * @throws IllegalArgumentException if {@code enumClazz} is not an enum implementing {@link TerEnum}
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends Enum<E> & TerEnum<T, ?, ?>, T extends Comparable<T> & Serializable> Map<T, String> toDescMap(
+            Class<E> enumClazz, Locale locale) {
+        return (Map<T, String>) terSnapshotOf(enumClazz, locale).descMap;
+    }
+
+    /**
+     * Drops the resolved labels of all enum classes, they will be resolved again on next use.
+     */
+    public void clear() {
+        snapshots.classes().forEach(snapshots::remove);
+    }
+
+    private Snapshot terSnapshotOf(Class<?> enumClazz, Locale locale) {
+        Snapshot snapshot = snapshotOf(enumClazz, locale);
+        if (snapshot.descs == null) {
+            throw new IllegalArgumentException(enumClazz.getName() + " is not an enum implementing TerEnum.");
+        }
+        return snapshot;
+    }
+
+    private Snapshot snapshotOf(Class<?> enumClazz, Locale locale) {
+        Objects.requireNonNull(enumClazz, "Enum class cannot be null");
+        Objects.requireNonNull(locale, "Locale cannot be null");
+        if (!enumClazz.isEnum() || !BiEnum.class.isAssignableFrom(enumClazz)) {
+            throw new IllegalArgumentException(enumClazz.getName() + " is not an enum implementing BiEnum.");
+        }
+        return snapshots.get(enumClazz).computeIfAbsent(locale,
+                key -> new Snapshot(enumClazz, key, labelResolver, descResolver));
+    }
+
+    /**
+     * The localized labels of an enum class in a locale.
+     */
+    private static final class Snapshot {
+
+        private final String[] labels;
+
+        /**
+         * The localized descs, null if the enum doesn't implement {@link TerEnum}.
+         */
+        private final String[] descs;
+
+        private final List<?> dictionaries;
+
+        private final Map<?, String> labelMap;
+
+        private final Map<?, String> descMap;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Snapshot(Class<?> enumClazz, Locale locale,
+                         BiFunction<? super Enum<?>, ? super Locale, String> labelResolver,
+                         BiFunction<? super Enum<?>, ? super Locale, String> descResolver) {
+            Enum<?>[] constants = (Enum<?>[]) enumClazz.getEnumConstants();
+            boolean ternary = TerEnum.class.isAssignableFrom(enumClazz);
+            String[] labels = new String[constants.length];
+            String[] descs = ternary ? new String[constants.length] : null;
+            Map<Object, String> labelMap = new HashMap<>(Math.max(constants.length * 2, 16));
+            Map<Object, String> descMap = ternary ? new HashMap<>(Math.max(constants.length * 2, 16)) : null;
+            for (Enum<?> constant : constants) {
+                int ordinal = constant.ordinal();
+                Object value = ((BiEnum<?, ?>) constant).getValue();
+                labels[ordinal] = labelResolver.apply(constant, locale);
+                labelMap.put(value, labels[ordinal]);
+                if (ternary) {
+                    descs[ordinal] = descResolver.apply(constant, locale);
+                    descMap.put(value, descs[ordinal]);
+                }
+            }
+
+            Function<Enum<?>, Object> mapper = ternary
+                    ? constant -> terEntry((BiEnum) constant, labels[constant.ordinal()], descs[constant.ordinal()])
+                    : constant -> biEntry((BiEnum) constant, labels[constant.ordinal()]);
+            this.labels = labels;
+            this.descs = descs;
+            this.dictionaries = Collections.unmodifiableList(Distinct.toList(constants, mapper,
+                    Function.identity()));
+            this.labelMap = Collections.unmodifiableMap(labelMap);
+            this.descMap = ternary ? Collections.unmodifiableMap(descMap) : null;
+        }
+
+        private static <T extends Comparable<T> & Serializable> Object biEntry(BiEnum<T, ?> constant, String label) {
+            return InternedBiDictionary.of(constant.getValue(), label);
+        }
+
+        private static <T extends Comparable<T> & Serializable> Object terEntry(BiEnum<T, ?> constant, String label,
+                                                                              String desc) {
+            return InternedTerDictionary.of(constant.getValue(), label, desc);
+        }
+
+    }
+
+}
@@ -21,7 +21,6 @@ import com.yizlan.gelato.canonical.copier.ValueProvider;
 import com.yizlan.gelato.canonical.dictionary.TerDictionary;
 
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -29,8 +28,6 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Provide fields which named value、label and desc with the different type for enum.
@@ -58,7 +55,7 @@ public interface TerEnum<T extends Comparable<T> & Serializable, U extends Compa
 
         private final TerEnum<T, U, S> enumValue;
 
-        private TerDictionaryAdapter(TerEnum<T, U, S> enumValue) {
+        TerDictionaryAdapter(TerEnum<T, U, S> enumValue) {
             this.enumValue = Objects.requireNonNull(enumValue, "enumValue cannot be null");
         }
 
@@ -108,7 +105,8 @@ public interface TerEnum<T extends Comparable<T> & Serializable, U extends Compa
 
         @Override
         public int hashCode() {
-            return Objects.hash(enumValue.getValue(), enumValue.getLabel(), enumValue.getDesc());
+            int hash = 31 * Objects.hashCode(enumValue.getValue()) + Objects.hashCode(enumValue.getLabel());
+            return 31 * hash + Objects.hashCode(enumValue.getDesc());
         }
 
     }
@@ -132,11 +130,57 @@ public interface TerEnum<T extends Comparable<T> & Serializable, U extends Compa
             return Collections.emptyList();
         }
 
-        return Stream.of(enumValues)
-                .filter(Objects::nonNull)
-                .map(TerDictionaryAdapter::new)
-                .distinct()
-                .collect(Collectors.toList());
+        return Distinct.toList(enumValues, TerDictionaryAdapter::new, Function.identity());
+    }
+
+    /**
+     * Returns the dictionary snapshot of the enum class, which holds the same entries as
+     * {@code toList(enumClazz.getEnumConstants())}.
+     * <p>
+     * The snapshot is computed once per enum class and shared by all callers. It can't be modified, neither the
+     * list nor its entries.
+     *
+     * @param enumClazz the class of enum, not nullable
+     * @param <E>       the type of the enum
+     * @param <T>       the type of the value field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U>       the type of the label field, should implement {@link Comparable} and {@link Serializable}
+     * @param <S>       the type of the desc field, should implement {@link Comparable} and {@link Serializable}
+     * @return an unmodifiable list of dictionary objects
+     * @throws NullPointerException     if {@code enumClazz} is null
+     * @throws IllegalArgumentException if {@code enumClazz} is not an enum implementing {@link TerEnum}
+     * @since 2.8
+     */
+    @SuppressWarnings("unchecked")
+    static <E extends Enum<E> & TerEnum<T, U, S>, T extends Comparable<T> & Serializable,
+            U extends Comparable<U> & Serializable, S extends Comparable<S> & Serializable>
+    List<TerDictionary<T, U, S>> dictionaryOf(Class<E> enumClazz) {
+        Objects.requireNonNull(enumClazz, "Enum class cannot be null");
+        return (List<TerDictionary<T, U, S>>) EnumDictionaries.TER_DICTIONARIES.get(enumClazz);
+    }
+
+    /**
+     * Returns a read-only view of the enum constants as dictionary objects, in declaration order.
+     * <p>
+     * The view holds one {@link TerDictionaryAdapter} per constant, created once per enum class and shared by all
+     * callers, so that getting the view doesn't allocate anything. Unlike {@link #toList(TerEnum[])}, the
+     * constants are not deduplicated, the view has as many elements as the enum has constants.
+     *
+     * @param enumClazz the class of enum, not nullable
+     * @param <E>       the type of the enum
+     * @param <T>       the type of the value field, should implement {@link Comparable} and {@link Serializable}
+     * @param <U>       the type of the label field, should implement {@link Comparable} and {@link Serializable}
+     * @param <S>       the type of the desc field, should implement {@link Comparable} and {@link Serializable}
+     * @return an unmodifiable list of dictionary objects
+     * @throws NullPointerException     if {@code enumClazz} is null
+     * @throws IllegalArgumentException if {@code enumClazz} is not an enum implementing {@link TerEnum}
+     * @since 2.8
+     */
+    @SuppressWarnings("unchecked")
+    static <E extends Enum<E> & TerEnum<T, U, S>, T extends Comparable<T> & Serializable,
+            U extends Comparable<U> & Serializable, S extends Comparable<S> & Serializable>
+    List<TerDictionary<T, U, S>> dictionaryView(Class<E> enumClazz) {
+        Objects.requireNonNull(enumClazz, "Enum class cannot be null");
+        return (List<TerDictionary<T, U, S>>) EnumDictionaries.TER_VIEWS.get(enumClazz);
     }
 
     /**
@@ -163,26 +207,22 @@ public interface TerEnum<T extends Comparable<T> & Serializable, U extends Compa
             return Collections.emptyList();
         }
 
-        Objects.requireNonNull(supplier.get());
-        List<R> objects = new ArrayList<>(enumValues.length);
-        for (TerEnum<T, U, S> item : enumValues) {
-            if (item != null) {
-                R object = supplier.get();
-                object.setCode(item.getValue());
-                object.setName(item.getLabel());
-                object.setDesc(item.getDesc());
+        return Distinct.toList(enumValues, item -> {
+            R object = Objects.requireNonNull(supplier.get());
+            object.setCode(item.getValue());
+            object.setName(item.getLabel());
+            object.setDesc(item.getDesc());
 
-                objects.add(object);
-            }
-        }
-
-        return objects.stream().distinct().collect(Collectors.toList());
+            return object;
+        }, Function.identity());
     }
 
     /**
      * Converts enums to a list of dictionary objects with a special data type,
      * and also using a mapping function to produce unique keys to deduplicate the list.
      * Note that the null elements will be ignored.
+     * <p>
+     * The first object of each key is kept.
      *
      * @param enumValues   all values of this enum, not nullable
      * @param supplier     a supplier for instances of type R
@@ -204,19 +244,55 @@ public interface TerEnum<T extends Comparable<T> & Serializable, U extends Compa
             return Collections.emptyList();
         }
 
-        Objects.requireNonNull(supplier.get());
-        return Stream.of(enumValues)
-                .filter(Objects::nonNull)
-                .map(item -> {
-                    R object = supplier.get();
-                    object.setCode(item.getValue());
-                    object.setName(item.getLabel());
-                    object.setDesc(item.getDesc());
-
-                    return object;
-                })
-                .filter(BiEnum.distinctByKey(keyExtractor))
-                .collect(Collectors.toList());
+        return Distinct.toList(enumValues, item -> {
+            R object = Objects.requireNonNull(supplier.get());
+            object.setCode(item.getValue());
+            object.setName(item.getLabel());
+            object.setDesc(item.getDesc());
+
+            return object;
+        }, keyExtractor);
+    }
+
+    /**
+     * Converts enums to a list of dictionary objects with a special data type like
+     * {@link #toList(TerEnum[], Supplier, Function)}, processing large arrays in parallel.
+     * Note that the null elements will be ignored.
+     * <p>
+     * This is meant for large arrays, such as dictionaries loaded from configuration. Arrays of at least 8192
+     * elements are processed by the common fork/join pool, so {@code supplier} and {@code keyExtractor} are called
+     * concurrently from several threads: they must be thread-safe, should not block, and must not rely on the
+     * calling thread. Smaller arrays are processed on the calling thread.
+     *
+     * @param enumValues   all values of this enum, not nullable
+     * @param supplier     a thread-safe supplier for instances of type R
+     * @param keyExtractor a thread-safe function to extract unique keys from instances of type R
+     * @param <T>          the generic type T, which must implement {@link Comparable} and {@link Serializable}
+     * @param <U>          the generic type U, which must implement {@link Comparable} and {@link Serializable}
+     * @param <S>          the generic type S, which must implement {@link Comparable} and {@link Serializable}
+     * @param <R>          the generic type R, which must implement the {@link TerDictionary} interface
+     * @return a list of the specified type R
+     * @throws NullPointerException if {@code enumValues} or {@code supplier}
+     *                              or {@link Supplier#get()} or {@link Function#apply(Object)} is null
+     * @since 2.8
+     */
+    static <T extends Comparable<T> & Serializable, U extends Comparable<U> & Serializable,
+            S extends Comparable<S> & Serializable, R extends TerDictionary<T, U, S>> List<R> toListInParallel(
+            TerEnum<T, U, S>[] enumValues, Supplier<R> supplier, Function<? super R, Object> keyExtractor) {
+        Objects.requireNonNull(enumValues);
+        Objects.requireNonNull(supplier);
+        if (enumValues.length == 0) {
+            return Collections.emptyList();
+        }
+
+        return Distinct.toListInParallel(enumValues, item -> {
+            R object = Objects.requireNonNull(supplier.get());
+            object.setCode(item.getValue());
+            object.setName(item.getLabel());
+            object.setDesc(item.getDesc());
+
+            return object;
+        }, keyExtractor);
     }
 
     /**
@@ -19,9 +19,6 @@ package com.yizlan.gelato.canonical.enums;
 import com.yizlan.gelato.canonical.copier.ValueProvider;
 
 import java.io.Serializable;
-import java.util.Objects;
-import java.util.Optional;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Provides fields which named value for enum.
@@ -34,23 +31,28 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public interface UnaryEnum<T extends Comparable<T> & Serializable> extends ValueProvider<T> {
 
     /**
-     * Compares this enum's value with the given value.
+     * Compares this enum's value with the given value, according to the {@link #valueEquivalence()}.
      *
      * @param enumValue the value to compare with
      * @return {@code true} if the values are considered equal, otherwise {@code false}
      */
     default boolean valueEquals(T enumValue) {
-        AtomicBoolean flag = new AtomicBoolean(false);
-        Optional.ofNullable(enumValue)
-                .ifPresent(enumVal -> {
-                    T value = this.getValue();
-                    if (enumVal instanceof String && value instanceof String) {
-                        flag.set(((String) enumVal).equalsIgnoreCase((String) value));
-                    } else {
-                        flag.set(Objects.equals(enumVal, value));
-                    }
-                });
-        return flag.get();
+        T value = this.getValue();
+        if (enumValue == null || value == null) {
+            return false;
+        }
+        return valueEquivalence().equivalent(value, enumValue);
+    }
+
+    /**
+     * Returns the strategy used to compare this enum's value, the same strategy should be declared by all
+     * elements of an enum.
+     *
+     * @return the value equivalence of this enum, default to {@link ValueEquivalence#CASE_INSENSITIVE}
+     * @since 2.8
+     */
+    default ValueEquivalence valueEquivalence() {
+        return ValueEquivalence.CASE_INSENSITIVE;
     }
 
 }
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.enums;
+
+/**
+ * Strategy deciding whether the value of an enum matches a given value, declared by an enum through
+ * {@link UnaryEnum#valueEquivalence()}.
+ * <p>
+ * The standard strategies are indexed by {@link com.yizlan.gelato.canonical.util.EnumUtils}, so that lookups by
+ * value and {@link UnaryEnum#valueEquals} always agree. Any other implementation is honored by scanning the
+ * constants of the enum.
+ *
+ * @author Zen Gershon
+ * @see UnaryEnum#valueEquals
+ * @since 2.8
+ */
+@FunctionalInterface
+public interface ValueEquivalence {
+
+    /**
+     * Values are equal according to {@link Object#equals(Object)}.
+     */
+    ValueEquivalence EXACT = Standard.EXACT;
+
+    /**
+     * Strings are equal according to {@link String#equalsIgnoreCase(String)},
+     * other values according to {@link Object#equals(Object)}. This is the default strategy of {@link UnaryEnum}.
+     */
+    ValueEquivalence CASE_INSENSITIVE = Standard.CASE_INSENSITIVE;
+
+    /**
+     * Integral values of type {@link Byte}, {@link Short}, {@link Integer} or {@link Long} are equal if they
+     * represent the same number, e.g. {@code Integer 1} matches {@code Long 1L},
+     * other values are equal according to {@link Object#equals(Object)}.
+     */
+    ValueEquivalence NUMERIC_WIDENING = Standard.NUMERIC_WIDENING;
+
+    /**
+     * Whether the value of the enum matches the given value.
+     *
+     * @param enumValue the value of the enum, not nullable
+     * @param value     the value to compare with, not nullable
+     * @return {@code true} if the values are considered equal, otherwise {@code false}
+     */
+    boolean equivalent(Object enumValue, Object value);
+
+    /**
+     * Whether the value is of the integral types which are widened by {@link #NUMERIC_WIDENING}.
+     *
+     * @param value the value to check
+     * @return {@code true} if the value is a {@link Byte}, {@link Short}, {@link Integer} or {@link Long}
+     */
+    static boolean isIntegral(Object value) {
+        return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+    }
+
+    /**
+     * The standard strategies, which are indexed by {@link com.yizlan.gelato.canonical.util.EnumUtils}.
+     */
+    enum Standard implements ValueEquivalence {
+        EXACT {
+            @Override
+            public boolean equivalent(Object enumValue, Object value) {
+                return enumValue.equals(value);
+            }
+        },
+        CASE_INSENSITIVE {
+            @Override
+            public boolean equivalent(Object enumValue, Object value) {
+                if (enumValue instanceof String && value instanceof String) {
+                    return ((String) enumValue).equalsIgnoreCase((String) value);
+                }
+                return enumValue.equals(value);
+            }
+        },
+        NUMERIC_WIDENING {
+            @Override
+            public boolean equivalent(Object enumValue, Object value) {
+                if (isIntegral(enumValue) && isIntegral(value)) {
+                    return ((Number) enumValue).longValue() == ((Number) value).longValue();
+                }
+                return enumValue.equals(value);
+            }
+        }
+    }
+
+}
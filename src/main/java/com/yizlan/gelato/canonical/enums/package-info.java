@@ -23,6 +23,7 @@
  *     <li>Provides value comparison for enum</li>
  *     <li>Provides enum to dictionary conversion</li>
  *     <li>Provides enum to map conversion</li>
+ *     <li>Provides localized labels of enum cached per locale</li>
  * </ul>
  *
  * @author Zen Gershon
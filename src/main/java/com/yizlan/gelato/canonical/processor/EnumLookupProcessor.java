@@ -0,0 +1,582 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.processor;
+
+import com.sun.source.tree.AssignmentTree;
+import com.sun.source.tree.CompoundAssignmentTree;
+import com.sun.source.tree.ExpressionStatementTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.LiteralTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.ParenthesizedTree;
+import com.sun.source.tree.ReturnTree;
+import com.sun.source.tree.StatementTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.UnaryTree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.Trees;
+import com.yizlan.gelato.canonical.annotations.CompiledLookup;
+import com.yizlan.gelato.canonical.enums.UnaryEnum;
+import com.yizlan.gelato.canonical.util.EnumLookup;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.Name;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Annotation processor generating an {@link EnumLookup} for each enum annotated with {@link CompiledLookup}.
+ * <p>
+ * The values of the elements are read from the literal arguments passed to the constructor of the enum, for the
+ * parameter which is assigned to the field returned by {@code getValue()}. {@link String}, {@link Integer} and
+ * {@link Long} values are supported. The generated lookup is a switch over the values, or over their hashes, so
+ * that it needs no warm-up and can be inlined by the JIT. Duplicate values are reported at compile time.
+ * <p>
+ * When the values can't be read, a note is reported and no lookup is generated, the enum is then looked up
+ * through the table built at runtime. The processor relies on the compiler tree API of javac.
+ * <p>
+ * The processor is optional and not registered as a service, it should be enabled explicitly, for example with
+ * {@code -processor com.yizlan.gelato.canonical.processor.EnumLookupProcessor}.
+ *
+ * @author Zen Gershon
+ * @since 2.8
+ */
+@SupportedAnnotationTypes("com.yizlan.gelato.canonical.annotations.CompiledLookup")
+public class EnumLookupProcessor extends AbstractProcessor {
+
+    private Trees trees;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        try {
+            this.trees = Trees.instance(processingEnv);
+        } catch (IllegalArgumentException e) {
+            // not running in javac
+            this.trees = null;
+        }
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(CompiledLookup.class)) {
+            if (element.getKind() != ElementKind.ENUM) {
+                error(element, "@CompiledLookup is only applicable to enums.");
+                continue;
+            }
+            if (trees == null) {
+                note(element, "Lookup not generated, the compiler tree API is not available.");
+                continue;
+            }
+            process((TypeElement) element);
+        }
+        return true;
+    }
+
+    private void process(TypeElement enumType) {
+        if (isPrivate(enumType)) {
+            error(enumType, "@CompiledLookup can't be applied to a private enum.");
+            return;
+        }
+
+        String valueType = valueType(enumType.asType());
+        if (valueType == null) {
+            note(enumType, "Lookup not generated, only String, Integer and Long values are supported.");
+            return;
+        }
+
+        Map<VariableElement, Object> values = resolveValues(enumType);
+        if (values == null) {
+            return;
+        }
+
+        boolean allowDuplicates = enumType.getAnnotation(CompiledLookup.class).allowDuplicates();
+        Map<Object, VariableElement> exact = new LinkedHashMap<>();
+        Map<String, VariableElement> folded = new LinkedHashMap<>();
+        for (Map.Entry<VariableElement, Object> entry : values.entrySet()) {
+            VariableElement constant = entry.getKey();
+            Object value = entry.getValue();
+            if (value == null) {
+                continue;
+            }
+
+            VariableElement previous = exact.putIfAbsent(value, constant);
+            if (previous != null && !allowDuplicates) {
+                error(constant, "Duplicate value " + value + " of " + constant + ", already used by " + previous +
+                        ".");
+            }
+            if (previous == null && value instanceof String) {
+                VariableElement similar = folded.putIfAbsent(fold((String) value), constant);
+                if (similar != null && !allowDuplicates) {
+                    warning(constant, "Value " + value + " of " + constant + " is equal to the value of " + similar +
+                            " ignoring case.");
+                }
+            }
+        }
+
+        generate(enumType, valueType, exact);
+    }
+
+    /**
+     * Returns the simple name of the value type of {@link UnaryEnum} implemented by the type, or null if the type
+     * isn't supported.
+     */
+    private String valueType(TypeMirror type) {
+        for (TypeMirror supertype : processingEnv.getTypeUtils().directSupertypes(type)) {
+            DeclaredType declaredType = (DeclaredType) supertype;
+            TypeElement element = (TypeElement) declaredType.asElement();
+            if (element.getQualifiedName().contentEquals(UnaryEnum.class.getName())) {
+                String argument = declaredType.getTypeArguments().get(0).toString();
+                switch (argument) {
+                    case "java.lang.String":
+                    case "java.lang.Integer":
+                    case "java.lang.Long":
+                        return argument.substring("java.lang.".length());
+                    default:
+                        return null;
+                }
+            }
+
+            String valueType = valueType(supertype);
+            if (valueType != null) {
+                return valueType;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolves the value of each element in declaration order, or returns null if any of them can't be resolved.
+     */
+    private Map<VariableElement, Object> resolveValues(TypeElement enumType) {
+        String field = valueField(enumType);
+        if (field == null) {
+            note(enumType, "Lookup not generated, getValue() doesn't simply return a field.");
+            return null;
+        }
+
+        Map<Integer, Integer> parameterIndexes = new LinkedHashMap<>();
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(enumType.getEnclosedElements())) {
+            int arity = constructor.getParameters().size();
+            int index = parameterIndex(constructor, field);
+            // constructors with the same arity can't be told apart without attributing the arguments
+            parameterIndexes.put(arity, parameterIndexes.containsKey(arity) ? -1 : index);
+        }
+
+        Map<VariableElement, Object> values = new LinkedHashMap<>();
+        for (VariableElement constant : ElementFilter.fieldsIn(enumType.getEnclosedElements())) {
+            if (constant.getKind() != ElementKind.ENUM_CONSTANT) {
+                continue;
+            }
+
+            Tree tree = trees.getTree(constant);
+            ExpressionTree initializer = tree instanceof VariableTree ? ((VariableTree) tree).getInitializer() : null;
+            if (!(initializer instanceof NewClassTree)) {
+                note(constant, "Lookup not generated, the constructor call of " + constant + " is not found.");
+                return null;
+            }
+
+            if (((NewClassTree) initializer).getClassBody() != null) {
+                note(constant, "Lookup not generated, " + constant + " has a class body, which may override "
+                        + "getValue().");
+                return null;
+            }
+
+            List<? extends ExpressionTree> arguments = ((NewClassTree) initializer).getArguments();
+            Integer index = parameterIndexes.get(arguments.size());
+            if (index == null || index < 0) {
+                note(constant, "Lookup not generated, the parameter of " + field + " is not found.");
+                return null;
+            }
+
+            Object[] value = new Object[1];
+            if (!literal(arguments.get(index), value)) {
+                note(constant, "Lookup not generated, the value of " + constant + " is not a literal.");
+                return null;
+            }
+            values.put(constant, value[0]);
+        }
+        return values;
+    }
+
+    /**
+     * Returns the name of the field returned by {@code getValue()}, or null if it can't be found.
+     */
+    private String valueField(TypeElement enumType) {
+        for (ExecutableElement method : ElementFilter.methodsIn(enumType.getEnclosedElements())) {
+            if (!method.getSimpleName().contentEquals("getValue") || !method.getParameters().isEmpty()) {
+                continue;
+            }
+
+            MethodTree tree = trees.getTree(method);
+            if (tree == null || tree.getBody() == null || tree.getBody().getStatements().size() != 1) {
+                return null;
+            }
+            StatementTree statement = tree.getBody().getStatements().get(0);
+            if (statement instanceof ReturnTree) {
+                return fieldName(((ReturnTree) statement).getExpression());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the index of the constructor parameter assigned to the field, or -1 if it can't be found or if the
+     * field is assigned more than once.
+     */
+    private int parameterIndex(ExecutableElement constructor, String field) {
+        MethodTree tree = trees.getTree(constructor);
+        if (tree == null || tree.getBody() == null) {
+            return -1;
+        }
+
+        List<? extends VariableElement> parameters = constructor.getParameters();
+        int index = -1;
+        int assignments = 0;
+        for (StatementTree statement : tree.getBody().getStatements()) {
+            if (!(statement instanceof ExpressionStatementTree)) {
+                continue;
+            }
+            ExpressionTree expression = ((ExpressionStatementTree) statement).getExpression();
+            if (expression instanceof CompoundAssignmentTree
+                    && isField(((CompoundAssignmentTree) expression).getVariable(), field, parameters)) {
+                return -1;
+            }
+            if (!(expression instanceof AssignmentTree)
+                    || !isField(((AssignmentTree) expression).getVariable(), field, parameters)) {
+                continue;
+            }
+
+            assignments++;
+            index = -1;
+            ExpressionTree assigned = ((AssignmentTree) expression).getExpression();
+            if (assigned instanceof IdentifierTree) {
+                Name parameter = ((IdentifierTree) assigned).getName();
+                for (int i = 0; i < parameters.size(); i++) {
+                    if (parameters.get(i).getSimpleName().equals(parameter)) {
+                        index = i;
+                    }
+                }
+            }
+        }
+        // the last assignment wins, which can't be told without evaluating the constructor
+        return assignments == 1 ? index : -1;
+    }
+
+    /**
+     * Whether the variable of an assignment is the field, a bare name being the parameter if one shadows the field.
+     */
+    private static boolean isField(ExpressionTree variable, String field, List<? extends VariableElement> parameters) {
+        if (!field.equals(fieldName(variable))) {
+            return false;
+        }
+        if (variable instanceof IdentifierTree) {
+            for (VariableElement parameter : parameters) {
+                if (parameter.getSimpleName().contentEquals(field)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the name of {@code field} or {@code this.field}, or null for any other expression.
+     */
+    private static String fieldName(ExpressionTree expression) {
+        if (expression instanceof IdentifierTree) {
+            return ((IdentifierTree) expression).getName().toString();
+        }
+        if (expression instanceof MemberSelectTree) {
+            MemberSelectTree select = (MemberSelectTree) expression;
+            if (select.getExpression() instanceof IdentifierTree
+                    && ((IdentifierTree) select.getExpression()).getName().contentEquals("this")) {
+                return select.getIdentifier().toString();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Evaluates a literal, or a negated numeric literal, into {@code value[0]}.
+     *
+     * @return {@code false} if the expression is not a supported literal
+     */
+    private static boolean literal(ExpressionTree expression, Object[] value) {
+        while (expression instanceof ParenthesizedTree) {
+            expression = ((ParenthesizedTree) expression).getExpression();
+        }
+
+        if (expression instanceof LiteralTree) {
+            Object literal = ((LiteralTree) expression).getValue();
+            if (literal == null || literal instanceof String || literal instanceof Integer || literal instanceof Long) {
+                value[0] = literal;
+                return true;
+            }
+            return false;
+        }
+
+        if (expression.getKind() == Tree.Kind.UNARY_MINUS && literal(((UnaryTree) expression).getExpression(), value)) {
+            if (value[0] instanceof Integer) {
+                value[0] = -(Integer) value[0];
+                return true;
+            }
+            if (value[0] instanceof Long) {
+                value[0] = -(Long) value[0];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void generate(TypeElement enumType, String valueType, Map<Object, VariableElement> values) {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(enumType);
+        String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(enumType).toString();
+        String lookupName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+                + EnumLookup.GENERATED_SUFFIX;
+        String enumName = enumType.getQualifiedName().toString();
+
+        StringBuilder source = new StringBuilder(1024);
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("/**\n * Lookup of {@link ").append(enumName).append("} generated by ")
+                .append(EnumLookupProcessor.class.getName()).append(".\n */\n")
+                .append("public final class ").append(lookupName).append(" implements ")
+                .append(EnumLookup.class.getName()).append('<').append(enumName).append("> {\n");
+
+        switch (valueType) {
+            case "String":
+                appendStringLookup(source, enumName, values);
+                break;
+            case "Integer":
+                appendIntLookup(source, enumName, values);
+                break;
+            default:
+                appendLongLookup(source, enumName, values);
+                break;
+        }
+        source.append("}\n");
+
+        String qualifiedName = packageName.isEmpty() ? lookupName : packageName + "." + lookupName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, enumType).openWriter()) {
+            writer.write(source.toString());
+        } catch (IOException e) {
+            error(enumType, "Failed to generate " + qualifiedName + ": " + e.getMessage());
+        }
+    }
+
+    private static void appendStringLookup(StringBuilder source, String enumName, Map<Object, VariableElement> values) {
+        source.append("\n    @Override\n    public ").append(enumName).append(" findExact(Object value) {\n")
+                .append("        if (!(value instanceof String)) {\n            return null;\n        }\n")
+                .append("        switch ((String) value) {\n");
+        for (Map.Entry<Object, VariableElement> entry : values.entrySet()) {
+            source.append("            case ").append(stringLiteral((String) entry.getKey())).append(":\n")
+                    .append("                return ").append(enumName).append('.')
+                    .append(entry.getValue().getSimpleName()).append(";\n");
+        }
+        source.append("            default:\n                return null;\n        }\n    }\n");
+
+        // group by the case-insensitive hash, keeping the first element of values which are equal ignoring case
+        Map<Integer, List<Map.Entry<Object, VariableElement>>> buckets = new LinkedHashMap<>();
+        Map<String, Boolean> seen = new LinkedHashMap<>();
+        for (Map.Entry<Object, VariableElement> entry : values.entrySet()) {
+            String value = (String) entry.getKey();
+            if (seen.putIfAbsent(fold(value), Boolean.TRUE) == null) {
+                buckets.computeIfAbsent(EnumLookup.foldedHash(value), k -> new ArrayList<>()).add(entry);
+            }
+        }
+        source.append("\n    @Override\n    public ").append(enumName).append(" findIgnoreCase(CharSequence text) {\n")
+                .append("        switch (").append(EnumLookup.class.getName()).append(".foldedHash(text)) {\n");
+        for (Map.Entry<Integer, List<Map.Entry<Object, VariableElement>>> bucket : buckets.entrySet()) {
+            source.append("            case ").append(bucket.getKey()).append(":\n");
+            for (Map.Entry<Object, VariableElement> entry : bucket.getValue()) {
+                source.append("                if (").append(EnumLookup.class.getName()).append(".equalsIgnoreCase(")
+                        .append(stringLiteral((String) entry.getKey())).append(", text)) {\n")
+                        .append("                    return ").append(enumName).append('.')
+                        .append(entry.getValue().getSimpleName()).append(";\n                }\n");
+            }
+            source.append("                return null;\n");
+        }
+        source.append("            default:\n                return null;\n        }\n    }\n");
+
+        appendNotFound(source, enumName, "findInt(int value)");
+        appendNotFound(source, enumName, "findLong(long value)");
+        appendNotFound(source, enumName, "findIntegral(long value)");
+    }
+
+    private static void appendIntLookup(StringBuilder source, String enumName, Map<Object, VariableElement> values) {
+        source.append("\n    @Override\n    public ").append(enumName).append(" findExact(Object value) {\n")
+                .append("        return value instanceof Integer ? findInt((Integer) value) : null;\n    }\n");
+        appendNotFound(source, enumName, "findIgnoreCase(CharSequence text)");
+
+        source.append("\n    @Override\n    public ").append(enumName).append(" findInt(int value) {\n")
+                .append("        switch (value) {\n");
+        for (Map.Entry<Object, VariableElement> entry : values.entrySet()) {
+            source.append("            case ").append(entry.getKey()).append(":\n")
+                    .append("                return ").append(enumName).append('.')
+                    .append(entry.getValue().getSimpleName()).append(";\n");
+        }
+        source.append("            default:\n                return null;\n        }\n    }\n");
+
+        appendNotFound(source, enumName, "findLong(long value)");
+        source.append("\n    @Override\n    public ").append(enumName).append(" findIntegral(long value) {\n")
+                .append("        return value == (int) value ? findInt((int) value) : null;\n    }\n");
+    }
+
+    private static void appendLongLookup(StringBuilder source, String enumName, Map<Object, VariableElement> values) {
+        source.append("\n    @Override\n    public ").append(enumName).append(" findExact(Object value) {\n")
+                .append("        return value instanceof Long ? findLong((Long) value) : null;\n    }\n");
+        appendNotFound(source, enumName, "findIgnoreCase(CharSequence text)");
+        appendNotFound(source, enumName, "findInt(int value)");
+
+        Map<Integer, List<Map.Entry<Object, VariableElement>>> buckets = new LinkedHashMap<>();
+        for (Map.Entry<Object, VariableElement> entry : values.entrySet()) {
+            buckets.computeIfAbsent(Long.hashCode((Long) entry.getKey()), k -> new ArrayList<>()).add(entry);
+        }
+        source.append("\n    @Override\n    public ").append(enumName).append(" findLong(long value) {\n")
+                .append("        switch (Long.hashCode(value)) {\n");
+        for (Map.Entry<Integer, List<Map.Entry<Object, VariableElement>>> bucket : buckets.entrySet()) {
+            source.append("            case ").append(bucket.getKey()).append(":\n");
+            for (Map.Entry<Object, VariableElement> entry : bucket.getValue()) {
+                source.append("                if (value == ").append(entry.getKey()).append("L) {\n")
+                        .append("                    return ").append(enumName).append('.')
+                        .append(entry.getValue().getSimpleName()).append(";\n                }\n");
+            }
+            source.append("                return null;\n");
+        }
+        source.append("            default:\n                return null;\n        }\n    }\n");
+
+        source.append("\n    @Override\n    public ").append(enumName).append(" findIntegral(long value) {\n")
+                .append("        return findLong(value);\n    }\n");
+    }
+
+    private static void appendNotFound(StringBuilder source, String enumName, String signature) {
+        source.append("\n    @Override\n    public ").append(enumName).append(' ').append(signature).append(" {\n")
+                .append("        return null;\n    }\n");
+    }
+
+    /**
+     * Quotes and escapes a string as a Java literal.
+     * <p>
+     * Control characters are never written as unicode escapes, since javac translates unicode escapes before
+     * tokenizing the source, so that the escape of a line feed would end the literal. Characters outside of ASCII
+     * are written as unicode escapes, which is safe since they can't be quotes, backslashes or line terminators.
+     */
+    private static String stringLiteral(String value) {
+        StringBuilder literal = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    literal.append("\\\"");
+                    break;
+                case '\\':
+                    literal.append("\\\\");
+                    break;
+                case '\n':
+                    literal.append("\\n");
+                    break;
+                case '\r':
+                    literal.append("\\r");
+                    break;
+                case '\t':
+                    literal.append("\\t");
+                    break;
+                case '\b':
+                    literal.append("\\b");
+                    break;
+                case '\f':
+                    literal.append("\\f");
+                    break;
+                default:
+                    if (c < 0x20 || c == 0x7f) {
+                        // always three digits, so that a following digit is not taken into the escape
+                        literal.append(String.format("\\%03o", (int) c));
+                    } else if (c > 0x7f) {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+                    break;
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    /**
+     * Folds the string the same way as {@link String#equalsIgnoreCase(String)} compares its characters.
+     */
+    private static String fold(String value) {
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
+    private static boolean isPrivate(Element element) {
+        for (Element current = element; current instanceof TypeElement; current = current.getEnclosingElement()) {
+            if (current.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private void warning(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, message, element);
+    }
+
+    private void note(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, message, element);
+    }
+
+}
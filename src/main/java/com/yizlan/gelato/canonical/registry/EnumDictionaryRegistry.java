@@ -0,0 +1,366 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.registry;
+
+import com.yizlan.gelato.canonical.dictionary.BiDictionary;
+import com.yizlan.gelato.canonical.enums.BiEnum;
+import com.yizlan.gelato.canonical.enums.TerEnum;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A registry of the dictionaries of {@link BiEnum} and {@link TerEnum} implementations, indexed by a stable type
+ * key, so that a single endpoint such as {@code /dict/{type}} can serve all of them.
+ * <p>
+ * The registry is usually built once at startup by {@link #scan(ClassLoader, String...)}, which discovers the enums
+ * under the given package prefixes. Directories are walked and jars are read through NIO zip file systems, in
+ * parallel. Only the packages under the prefixes are visited, so the cost of the scan is bounded by the size of
+ * those packages rather than the size of the classpath.
+ * <p>
+ * The dictionaries are the snapshots of {@link BiEnum#dictionaryOf(Class)} or {@link TerEnum#dictionaryOf(Class)},
+ * built when the registry is built. The type key of an enum is given by {@link #typeKeyOf(Class)} by default, which
+ * is derived from its simple name only, a key function can be given to qualify the keys of enums of the same simple
+ * name in different packages.
+ * <p>
+ * Nested jars, such as {@code BOOT-INF/lib/*.jar} of an executable jar, and class path roots of other protocols are
+ * not scanned, they are skipped with a warning.
+ *
+ * @author Zen Gershon
+ * @since 2.8
+ */
+public final class EnumDictionaryRegistry {
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    private static final String ENUM_SUFFIX = "Enum";
+
+    private static final Logger LOGGER = Logger.getLogger(EnumDictionaryRegistry.class.getName());
+
+    private final Map<String, Class<?>> types;
+
+    private final Map<String, List<? extends BiDictionary<?, ?>>> dictionaries;
+
+    private EnumDictionaryRegistry(Map<String, Class<?>> types) {
+        Map<String, List<? extends BiDictionary<?, ?>>> dictionaries = new HashMap<>(Math.max(types.size() * 2, 16));
+        types.forEach((key, type) -> dictionaries.put(key, dictionaryOf(type)));
+        this.types = Collections.unmodifiableMap(types);
+        this.dictionaries = dictionaries;
+    }
+
+    /**
+     * Builds a registry of the given enum classes.
+     *
+     * @param enumClasses the classes of enum implementing {@link BiEnum}, not nullable
+     * @return the registry of the enums
+     * @throws IllegalArgumentException if a class is not an enum implementing {@link BiEnum}, or if two classes
+     *                                  have the same type key
+     */
+    public static EnumDictionaryRegistry of(Collection<? extends Class<?>> enumClasses) {
+        return of(enumClasses, EnumDictionaryRegistry::typeKeyOf);
+    }
+
+    /**
+     * Builds a registry of the given enum classes, keyed by the key function.
+     *
+     * @param enumClasses     the classes of enum implementing {@link BiEnum}, not nullable
+     * @param typeKeyFunction the function giving the type key of an enum class, such as {@link Class#getName()},
+     *                        not nullable
+     * @return the registry of the enums
+     * @throws IllegalArgumentException if a class is not an enum implementing {@link BiEnum}, or if two classes
+     *                                  have the same type key
+     */
+    public static EnumDictionaryRegistry of(Collection<? extends Class<?>> enumClasses,
+                                            Function<? super Class<?>, String> typeKeyFunction) {
+        Objects.requireNonNull(enumClasses, "Enum classes cannot be null");
+        Objects.requireNonNull(typeKeyFunction, "Type key function cannot be null");
+        Map<String, Class<?>> types = new TreeMap<>();
+        for (Class<?> type : enumClasses) {
+            if (!isDictionaryEnum(type)) {
+                throw new IllegalArgumentException(type + " is not an enum implementing BiEnum.");
+            }
+            String typeKey = typeKeyOf(type, typeKeyFunction);
+            Class<?> previous = types.putIfAbsent(typeKey, type);
+            if (previous != null && previous != type) {
+                throw new IllegalArgumentException("Duplicate type key found: " + typeKey +
+                        ", shared by " + previous.getName() + " and " + type.getName());
+            }
+        }
+        return new EnumDictionaryRegistry(types);
+    }
+
+    /**
+     * Builds a registry of the enums found under the package prefixes.
+     * <p>
+     * The classes are loaded without being initialized, only the enums implementing {@link BiEnum} are
+     * initialized. Classes which can't be loaded, for instance because of a missing optional dependency, are
+     * skipped.
+     * <p>
+     * The enums are keyed by {@link #typeKeyOf(Class)}, see {@link #scan(ClassLoader, Function, String...)} for
+     * the enums of the same type key.
+     *
+     * @param classLoader     the class loader to scan, not nullable
+     * @param packagePrefixes the package prefixes to scan, such as {@code com.example.order}, at least one
+     * @return the registry of the enums found
+     * @throws IllegalArgumentException if no package prefix is given
+     * @throws UncheckedIOException     if a directory or a jar can't be read
+     */
+    public static EnumDictionaryRegistry scan(ClassLoader classLoader, String... packagePrefixes) {
+        return scan(classLoader, EnumDictionaryRegistry::typeKeyOf, packagePrefixes);
+    }
+
+    /**
+     * Builds a registry of the enums found under the package prefixes, keyed by the key function.
+     * <p>
+     * When several enums have the same type key, the scan is not aborted, the first of them in the order of their
+     * class names is registered, and the others are reported by a warning. A key function qualifying the keys,
+     * for instance by the package relative to the prefix, keeps all of them.
+     *
+     * @param classLoader     the class loader to scan, not nullable
+     * @param typeKeyFunction the function giving the type key of an enum class, not nullable
+     * @param packagePrefixes the package prefixes to scan, such as {@code com.example.order}, at least one
+     * @return the registry of the enums found
+     * @throws IllegalArgumentException if no package prefix is given
+     * @throws UncheckedIOException     if a directory or a jar can't be read
+     */
+    public static EnumDictionaryRegistry scan(ClassLoader classLoader,
+                                              Function<? super Class<?>, String> typeKeyFunction,
+                                              String... packagePrefixes) {
+        Objects.requireNonNull(classLoader, "Class loader cannot be null");
+        Objects.requireNonNull(typeKeyFunction, "Type key function cannot be null");
+        Objects.requireNonNull(packagePrefixes, "Package prefixes cannot be null");
+        if (packagePrefixes.length == 0) {
+            throw new IllegalArgumentException("At least one package prefix is required.");
+        }
+
+        // the roots of the package directories, keyed by their URL, mapped to the package name
+        Map<String, Root> roots = new LinkedHashMap<>();
+        for (String packagePrefix : packagePrefixes) {
+            String packageName = Objects.requireNonNull(packagePrefix, "Package prefix cannot be null");
+            try {
+                Enumeration<URL> resources = classLoader.getResources(packageName.replace('.', '/'));
+                while (resources.hasMoreElements()) {
+                    URL url = resources.nextElement();
+                    roots.putIfAbsent(url.toExternalForm(), new Root(url, packageName));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        List<Class<?>> enumClasses = roots.values().parallelStream()
+                .flatMap(EnumDictionaryRegistry::classNames)
+                .distinct()
+                .map(className -> loadClass(classLoader, className))
+                .filter(EnumDictionaryRegistry::isDictionaryEnum)
+                .sorted(Comparator.comparing(Class::getName))
+                .collect(Collectors.toList());
+
+        Map<String, Class<?>> types = new TreeMap<>();
+        Map<String, List<String>> collisions = new TreeMap<>();
+        for (Class<?> type : enumClasses) {
+            String typeKey = typeKeyOf(type, typeKeyFunction);
+            if (types.putIfAbsent(typeKey, type) != null) {
+                collisions.computeIfAbsent(typeKey, key -> new ArrayList<>()).add(type.getName());
+            }
+        }
+        collisions.forEach((typeKey, ignored) -> LOGGER.log(Level.WARNING, "Duplicate type key found: {0}, {1}"
+                + " is registered and {2} are ignored.", new Object[]{typeKey, types.get(typeKey).getName(), ignored}));
+        return new EnumDictionaryRegistry(types);
+    }
+
+    /**
+     * Returns the type key of the enum class, which is its simple name without the {@code Enum} suffix, in lower
+     * camel case, for instance {@code warningSign} for {@code WarningSignEnum}.
+     *
+     * @param enumClazz the class of enum, not nullable
+     * @return the type key
+     */
+    public static String typeKeyOf(Class<?> enumClazz) {
+        String name = enumClazz.getSimpleName();
+        if (name.endsWith(ENUM_SUFFIX) && name.length() > ENUM_SUFFIX.length()) {
+            name = name.substring(0, name.length() - ENUM_SUFFIX.length());
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * Gets the dictionary of the type key.
+     *
+     * @param typeKey the type key
+     * @return the unmodifiable dictionary, if not found, return null
+     */
+    public List<? extends BiDictionary<?, ?>> get(String typeKey) {
+        return dictionaries.get(typeKey);
+    }
+
+    /**
+     * Gets the enum class of the type key.
+     *
+     * @param typeKey the type key
+     * @return the class of enum, if not found, return null
+     */
+    public Class<?> typeOf(String typeKey) {
+        return types.get(typeKey);
+    }
+
+    /**
+     * Returns the type keys of the registry, in alphabetical order.
+     *
+     * @return the unmodifiable set of type keys
+     */
+    public Set<String> typeKeys() {
+        return types.keySet();
+    }
+
+    /**
+     * Returns the number of enums in the registry.
+     *
+     * @return the number of enums
+     */
+    public int size() {
+        return types.size();
+    }
+
+    private static String typeKeyOf(Class<?> type, Function<? super Class<?>, String> typeKeyFunction) {
+        return Objects.requireNonNull(typeKeyFunction.apply(type), "Type key cannot be null");
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static List<? extends BiDictionary<?, ?>> dictionaryOf(Class<?> type) {
+        return TerEnum.class.isAssignableFrom(type)
+                ? TerEnum.dictionaryOf((Class) type)
+                : BiEnum.dictionaryOf((Class) type);
+    }
+
+    private static boolean isDictionaryEnum(Class<?> type) {
+        return type != null && type.isEnum() && BiEnum.class.isAssignableFrom(type);
+    }
+
+    private static Class<?> loadClass(ClassLoader classLoader, String className) {
+        try {
+            return Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Lists the names of the classes under the root, which is a directory or a directory of a jar.
+     */
+    private static Stream<String> classNames(Root root) {
+        try {
+            if ("file".equals(root.url.getProtocol())) {
+                Path directory = Paths.get(root.url.toURI());
+                return classNames(directory, root.packageName + ".");
+            }
+            if ("jar".equals(root.url.getProtocol())) {
+                return jarClassNames(root);
+            }
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid class path root: " + root.url, e);
+        }
+        LOGGER.log(Level.WARNING, "Class path root {0} is not supported, it is skipped.", root.url);
+        return Stream.empty();
+    }
+
+    private static Stream<String> jarClassNames(Root root) throws URISyntaxException {
+        String spec = root.url.getPath();
+        int separator = spec.indexOf("!/");
+        if (separator < 0 || !spec.startsWith("file:") || spec.indexOf("!/", separator + 2) >= 0) {
+            // a nested jar can't be opened as a zip file system of the default provider
+            LOGGER.log(Level.WARNING, "Nested jar {0} is not supported, it is skipped.", root.url);
+            return Stream.empty();
+        }
+
+        Path jar = Paths.get(new URI(spec.substring(0, separator)));
+        try (FileSystem fileSystem = FileSystems.newFileSystem(jar, (ClassLoader) null)) {
+            // collected before the file system is closed
+            return classNames(fileSystem.getPath(spec.substring(separator + 1)), root.packageName + ".");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Lists the names of the classes in the package directory and its sub-directories.
+     */
+    private static Stream<String> classNames(Path directory, String packagePrefix) {
+        if (!Files.isDirectory(directory)) {
+            return Stream.empty();
+        }
+
+        List<String> classNames = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.forEach(path -> {
+                String fileName = String.valueOf(path.getFileName());
+                // module-info and package-info are not classes
+                if (fileName.endsWith(CLASS_SUFFIX) && fileName.indexOf('-') < 0) {
+                    String relative = directory.relativize(path).toString();
+                    classNames.add(packagePrefix + relative
+                            .substring(0, relative.length() - CLASS_SUFFIX.length())
+                            .replace(path.getFileSystem().getSeparator(), "."));
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return classNames.stream();
+    }
+
+    /**
+     * A directory of a package on the class path.
+     */
+    private static final class Root {
+
+        private final URL url;
+
+        private final String packageName;
+
+        private Root(URL url, String packageName) {
+            this.url = url;
+            this.packageName = packageName;
+        }
+
+    }
+
+}
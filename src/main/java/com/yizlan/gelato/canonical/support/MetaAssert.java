@@ -21,12 +21,13 @@ import com.yizlan.gelato.canonical.fluent.asserts.CodeAssert;
 import com.yizlan.gelato.canonical.fluent.asserts.FuncAssert;
 import com.yizlan.gelato.canonical.fluent.factory.ExceptionFactory;
 import com.yizlan.gelato.canonical.panic.MetaException;
+import com.yizlan.gelato.canonical.util.CacheStats;
+import com.yizlan.gelato.canonical.util.ClassCache;
 
 import java.io.Serializable;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Abstract class for generating assertions and handling exceptions.
@@ -39,8 +40,9 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public abstract class MetaAssert {
 
-    private static final Map<Class<? extends MetaException>, ExceptionFactory<?, ? extends MetaException>>
-            DEFAULT_FACTORY = new ConcurrentHashMap<>();
+    // factories are held per exception class, so that they never pin the class loader of the exception class
+    private static final ClassCache<AtomicReference<ExceptionFactory<?, ? extends MetaException>>>
+            DEFAULT_FACTORY = new ClassCache<>(type -> new AtomicReference<>());
 
     protected MetaAssert() {
         // to do nothing
@@ -58,7 +60,22 @@ public abstract class MetaAssert {
                                                                     ExceptionFactory<?, T> factory) {
         Objects.requireNonNull(exceptionClazz, "Exception class is not specified.");
         Objects.requireNonNull(factory, "ExceptionFactory cannot be null.");
-        DEFAULT_FACTORY.put(exceptionClazz, factory);
+        DEFAULT_FACTORY.get(exceptionClazz).set(factory);
+    }
+
+    /**
+     * Inspects the registered exception factories.
+     * <p>
+     * The retained bytes are an estimate, not a measurement: each cached class holds an {@link AtomicReference},
+     * counted as 16 bytes for a 64-bit JVM with compressed references, and the factories themselves are not
+     * counted.
+     *
+     * @return the statistics of the factory cache, where entries are the registered factories
+     * @since 2.8
+     */
+    public static CacheStats getFactoryCacheStats() {
+        // an object header of 12 bytes and a reference of 4 bytes
+        return DEFAULT_FACTORY.stats(holder -> holder.get() == null ? 0L : 1L, holder -> 16L);
     }
 
     /**
@@ -75,7 +92,9 @@ public abstract class MetaAssert {
     private static <T extends Comparable<T> & Serializable, R extends MetaException> ExceptionFactory<T, R> getDefaultFactory(
             Class<R> exceptionClazz) {
         Objects.requireNonNull(exceptionClazz);
-        Object factory = DEFAULT_FACTORY.get(exceptionClazz);
+        // peeks, so that the classes without a factory are not cached
+        AtomicReference<ExceptionFactory<?, ? extends MetaException>> holder = DEFAULT_FACTORY.peek(exceptionClazz);
+        Object factory = holder == null ? null : holder.get();
         return Optional.ofNullable(factory)
                 .map(f -> (ExceptionFactory<T, R>) f)
                 .orElseThrow(() -> new IllegalStateException("Factory not set."));
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * An immutable reverse index of one enum class from an attribute, such as the label or the description, to the
+ * constant carrying it, built once on first touch.
+ * <p>
+ * Attributes are compared according to {@link Object#equals(Object)}, and null attributes are not indexed.
+ * An attribute carried by more than one constant is detected when the index is built, and looking it up fails,
+ * rather than silently picking one of the constants.
+ *
+ * @param <E> the type of the enum
+ * @author Zen Gershon
+ * @since 2.8
+ */
+final class AttributeIndex<E extends Enum<E>> {
+
+    private final String attributeName;
+
+    // the values are either a constant or an Ambiguous
+    private final Map<Object, Object> constants;
+
+    private AttributeIndex(String attributeName, Map<Object, Object> constants) {
+        this.attributeName = attributeName;
+        this.constants = constants;
+    }
+
+    /**
+     * Builds the index of the given enum class.
+     *
+     * @param enumClazz     the class of enum
+     * @param attributeName the name of the attribute, used in error messages
+     * @param extractor     a function to extract the attribute from a constant
+     * @param <E>           the type of the enum
+     * @return the index of the enum class, not nullable
+     */
+    static <E extends Enum<E>> AttributeIndex<E> build(Class<E> enumClazz, String attributeName,
+                                                       Function<? super E, ?> extractor) {
+        E[] values = enumClazz.getEnumConstants();
+        Map<Object, Object> constants = new HashMap<>(Math.max(values.length * 2, 16));
+        for (E value : values) {
+            Object attribute = extractor.apply(value);
+            if (attribute == null) {
+                continue;
+            }
+
+            Object previous = constants.putIfAbsent(attribute, value);
+            if (previous instanceof Ambiguous) {
+                ((Ambiguous) previous).constants.add(value);
+            } else if (previous != null) {
+                constants.put(attribute, new Ambiguous(previous, value));
+            }
+        }
+        return new AttributeIndex<>(attributeName, constants);
+    }
+
+    /**
+     * Finds the constant carrying the given attribute.
+     *
+     * @param attribute the attribute, not nullable
+     * @return the constant, if not found, return null
+     * @throws IllegalArgumentException if the attribute is carried by more than one constant
+     */
+    @SuppressWarnings("unchecked")
+    E find(Object attribute) {
+        Object constant = constants.get(attribute);
+        if (constant instanceof Ambiguous) {
+            throw new IllegalArgumentException("Ambiguous " + attributeName + " found: " + attribute +
+                    ", shared by " + ((Ambiguous) constant).constants);
+        }
+        return (E) constant;
+    }
+
+    /**
+     * Returns the number of indexed attributes.
+     *
+     * @return the number of entries
+     */
+    int size() {
+        return constants.size();
+    }
+
+    /**
+     * Estimates the bytes retained by this index, the attributes are shared with the constants.
+     *
+     * @return the approximate retained bytes
+     */
+    long retainedBytes() {
+        return CacheStats.OBJECT_HEADER + 2 * CacheStats.REFERENCE + CacheStats.ofHashMap(constants.size());
+    }
+
+    /**
+     * Constants sharing the same attribute, in declaration order.
+     */
+    private static final class Ambiguous {
+
+        private final List<Object> constants = new ArrayList<>();
+
+        private Ambiguous(Object first, Object second) {
+            Collections.addAll(constants, first, second);
+        }
+
+    }
+
+}
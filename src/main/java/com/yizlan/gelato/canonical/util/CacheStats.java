@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.util;
+
+/**
+ * Statistics of a cache holding values per class, such as the enum indexes of {@link EnumUtils}.
+ * <p>
+ * Retained bytes are an estimate assuming a 64-bit JVM with compressed references, they don't count the objects
+ * which are shared with the cached classes themselves, such as enum constants and their values.
+ *
+ * @author Zen Gershon
+ * @since 2.8
+ */
+public final class CacheStats {
+
+    // object header of a 64-bit JVM with compressed class pointers
+    static final int OBJECT_HEADER = 12;
+
+    // size of a compressed reference
+    static final int REFERENCE = 4;
+
+    // a HashMap.Node with its slot in the table, which is kept at most three quarters full
+    static final int HASH_ENTRY = 32 + 6;
+
+    private final int classes;
+
+    private final long entries;
+
+    private final long retainedBytes;
+
+    public CacheStats(int classes, long entries, long retainedBytes) {
+        this.classes = classes;
+        this.entries = entries;
+        this.retainedBytes = retainedBytes;
+    }
+
+    /**
+     * Get the number of classes whose value is cached.
+     *
+     * @return the number of cached classes
+     */
+    public int getClasses() {
+        return classes;
+    }
+
+    /**
+     * Get the number of entries held by the cached values.
+     *
+     * @return the number of entries
+     */
+    public long getEntries() {
+        return entries;
+    }
+
+    /**
+     * Get the approximate number of bytes retained by the cached values.
+     *
+     * @return the approximate retained bytes
+     */
+    public long getRetainedBytes() {
+        return retainedBytes;
+    }
+
+    /**
+     * Estimates the size of an array.
+     */
+    static long ofArray(int length, int elementBytes) {
+        return align(OBJECT_HEADER + 4 + (long) length * elementBytes);
+    }
+
+    /**
+     * Estimates the size of a {@link java.util.HashMap} and its nodes, excluding the keys and values.
+     */
+    static long ofHashMap(int size) {
+        return OBJECT_HEADER + 36 + (long) size * HASH_ENTRY;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "classes=" + classes +
+                ", entries=" + entries +
+                ", retainedBytes=" + retainedBytes +
+                '}';
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * A cache of values computed per class, which doesn't prevent the classes or their class loaders from being
+ * unloaded.
+ * <p>
+ * Values are stored through {@link ClassValue}, so a value lives as long as its class does, and goes away together
+ * with the class when the class loader is unloaded, such as on a hot redeploy. The cached classes are additionally
+ * tracked by weak references, so that the cache can be inspected by {@link #stats(ToLongFunction, ToLongFunction)}.
+ *
+ * @param <V> the type of the cached values
+ * @author Zen Gershon
+ * @since 2.8
+ */
+public final class ClassCache<V> {
+
+    private final ClassValue<V> values;
+
+    private final Map<Class<?>, Boolean> classes = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Creates a cache computing the value of a class on first touch.
+     *
+     * @param computer the function computing the value of a class, called at most once per class unless the
+     *                 value is removed; it must not return null, and it should not hold the class or any object
+     *                 from another class loader than the class's one
+     */
+    public ClassCache(Function<Class<?>, ? extends V> computer) {
+        Objects.requireNonNull(computer, "Computer cannot be null");
+        this.values = new ClassValue<V>() {
+            @Override
+            protected V computeValue(Class<?> type) {
+                V value = Objects.requireNonNull(computer.apply(type), "Computed value cannot be null");
+                classes.put(type, Boolean.TRUE);
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Gets the value of the class, computing it on first touch.
+     *
+     * @param type the class, not nullable
+     * @return the value of the class
+     */
+    public V get(Class<?> type) {
+        return values.get(type);
+    }
+
+    /**
+     * Gets the value of the class if it has been computed, without computing it.
+     *
+     * @param type the class, not nullable
+     * @return the value of the class, or null if it hasn't been computed
+     */
+    public V peek(Class<?> type) {
+        // the class is tracked once its value has been computed
+        return classes.containsKey(type) ? values.get(type) : null;
+    }
+
+    /**
+     * Removes the value of the class, it will be computed again on next touch.
+     *
+     * @param type the class, not nullable
+     */
+    public void remove(Class<?> type) {
+        classes.remove(type);
+        values.remove(type);
+    }
+
+    /**
+     * Returns the classes whose value is cached, excluding the classes which have been unloaded.
+     *
+     * @return a snapshot of the cached classes
+     */
+    public List<Class<?>> classes() {
+        synchronized (classes) {
+            return new ArrayList<>(classes.keySet());
+        }
+    }
+
+    /**
+     * Inspects the cache.
+     *
+     * @param entries       a function counting the entries held by a value
+     * @param retainedBytes a function estimating the bytes retained by a value
+     * @return the statistics of the cache
+     */
+    public CacheStats stats(ToLongFunction<? super V> entries, ToLongFunction<? super V> retainedBytes) {
+        List<Class<?>> cached = classes();
+        long entryCount = 0L;
+        long byteCount = 0L;
+        for (Class<?> type : cached) {
+            V value = values.get(type);
+            entryCount += entries.applyAsLong(value);
+            byteCount += retainedBytes.applyAsLong(value);
+        }
+        return new CacheStats(cached.size(), entryCount, byteCount);
+    }
+
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.util;
+
+import com.yizlan.gelato.canonical.dictionary.BiDictionary;
+import com.yizlan.gelato.canonical.dictionary.TerDictionary;
+import com.yizlan.gelato.canonical.enums.BiEnum;
+import com.yizlan.gelato.canonical.enums.TerEnum;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A dependency-free JSON writer of dictionary lists, which caches the UTF-8 bytes of the dictionary of each enum
+ * class, so that enum endpoints can write them to the response as they are, without any serializer work.
+ * <p>
+ * A list is written as an array of objects, whose fields are the code, the name and, for {@link TerDictionary}
+ * entries, the description, in that order. The names of the fields are given by the layout of the writer.
+ * Numbers and booleans are written as JSON literals, and any other value as a JSON string of its
+ * {@link Object#toString()}. For example {@code [{"code":1,"name":"男"}]}.
+ * <p>
+ * The bytes of an enum class are computed once per writer from {@link BiEnum#dictionaryOf(Class)}, or
+ * {@link TerEnum#dictionaryOf(Class)} when the enum implements {@link TerEnum}.
+ *
+ * @author Zen Gershon
+ * @since 2.8
+ */
+public final class DictionaryJson {
+
+    /**
+     * The writer whose layout is {@code code}, {@code name} and {@code desc}, the names of the fields of
+     * {@link TerDictionary}.
+     */
+    public static final DictionaryJson DEFAULT = new DictionaryJson("code", "name", "desc");
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final String codeField;
+
+    private final String nameField;
+
+    private final String descField;
+
+    private final ClassCache<ByteBuffer> enumBytes = new ClassCache<>(this::writeEnum);
+
+    private DictionaryJson(String codeField, String nameField, String descField) {
+        this.codeField = codeField;
+        this.nameField = nameField;
+        this.descField = descField;
+    }
+
+    /**
+     * Creates a writer with the given field names. The writer caches the bytes of the enum classes it writes,
+     * so it should be created once and kept by the caller.
+     *
+     * @param codeField the name of the code field, not nullable
+     * @param nameField the name of the name field, not nullable
+     * @param descField the name of the desc field, not nullable
+     * @return a writer of the layout
+     */
+    public static DictionaryJson of(String codeField, String nameField, String descField) {
+        Objects.requireNonNull(codeField, "Code field cannot be null");
+        Objects.requireNonNull(nameField, "Name field cannot be null");
+        Objects.requireNonNull(descField, "Desc field cannot be null");
+        return new DictionaryJson(codeField, nameField, descField);
+    }
+
+    /**
+     * Returns the JSON bytes of the dictionary of the enum class, computed once per enum class.
+     * <p>
+     * The returned buffer is a read-only view of the shared bytes, whose position and limit are independent from
+     * the ones returned by other calls, it can be written to a channel directly.
+     *
+     * @param enumClazz the class of enum, not nullable
+     * @return a read-only buffer of the UTF-8 bytes, positioned at the start
+     * @throws IllegalArgumentException if {@code enumClazz} is not an enum implementing {@link BiEnum}
+     */
+    public ByteBuffer bytesOf(Class<? extends BiEnum<?, ?>> enumClazz) {
+        Objects.requireNonNull(enumClazz, "Enum class cannot be null");
+        return enumBytes.get(enumClazz).duplicate();
+    }
+
+    /**
+     * Returns the JSON bytes of the dictionary of the enum class as a new array.
+     *
+     * @param enumClazz the class of enum, not nullable
+     * @return a copy of the UTF-8 bytes
+     * @throws IllegalArgumentException if {@code enumClazz} is not an enum implementing {@link BiEnum}
+     * @see #bytesOf(Class)
+     */
+    public byte[] toByteArray(Class<? extends BiEnum<?, ?>> enumClazz) {
+        ByteBuffer buffer = bytesOf(enumClazz);
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Writes the dictionaries to JSON bytes, they are not cached.
+     *
+     * @param dictionaries the dictionaries, null elements are written as {@code null}
+     * @return the UTF-8 bytes, the bytes of {@code null} if {@code dictionaries} is null
+     */
+    public byte[] write(List<? extends BiDictionary<?, ?>> dictionaries) {
+        return toJson(dictionaries).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the dictionaries to a JSON string, they are not cached.
+     *
+     * @param dictionaries the dictionaries, null elements are written as {@code null}
+     * @return the JSON string, {@code "null"} if {@code dictionaries} is null
+     */
+    public String toJson(List<? extends BiDictionary<?, ?>> dictionaries) {
+        if (dictionaries == null) {
+            return "null";
+        }
+
+        StringBuilder json = new StringBuilder(dictionaries.size() * 48 + 2).append('[');
+        for (int i = 0, size = dictionaries.size(); i < size; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendDictionary(json, dictionaries.get(i));
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * Returns the statistics of the bytes cached by this writer.
+     *
+     * @return the statistics, an entry per enum class
+     */
+    public CacheStats getCacheStats() {
+        return enumBytes.stats(buffer -> 1L,
+                buffer -> CacheStats.OBJECT_HEADER + 40 + CacheStats.ofArray(buffer.capacity(), 1));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ByteBuffer writeEnum(Class<?> type) {
+        if (!type.isEnum() || !BiEnum.class.isAssignableFrom(type)) {
+            throw new IllegalArgumentException(type.getName() + " is not an enum implementing BiEnum.");
+        }
+
+        List<? extends BiDictionary<?, ?>> dictionaries = TerEnum.class.isAssignableFrom(type)
+                ? TerEnum.dictionaryOf((Class) type)
+                : BiEnum.dictionaryOf((Class) type);
+        return ByteBuffer.wrap(write(dictionaries)).asReadOnlyBuffer();
+    }
+
+    private void appendDictionary(StringBuilder json, BiDictionary<?, ?> dictionary) {
+        if (dictionary == null) {
+            json.append("null");
+            return;
+        }
+
+        json.append('{');
+        appendString(json, codeField);
+        json.append(':');
+        appendValue(json, dictionary.getCode());
+        json.append(',');
+        appendString(json, nameField);
+        json.append(':');
+        appendValue(json, dictionary.getName());
+        if (dictionary instanceof TerDictionary) {
+            json.append(',');
+            appendString(json, descField);
+            json.append(':');
+            appendValue(json, ((TerDictionary<?, ?, ?>) dictionary).getDesc());
+        }
+        json.append('}');
+    }
+
+    private static void appendValue(StringBuilder json, Object value) {
+        if (value == null) {
+            json.append("null");
+        } else if (value instanceof Boolean || value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte
+                || value instanceof BigInteger || value instanceof BigDecimal) {
+            json.append(value);
+        } else if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            if (Double.isNaN(number) || Double.isInfinite(number)) {
+                // not representable by a JSON number
+                appendString(json, value.toString());
+            } else {
+                json.append(value);
+            }
+        } else {
+            appendString(json, value.toString());
+        }
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0, length = value.length(); i < length; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    // line separators are valid in JSON but not in JavaScript strings
+                    if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                        json.append("\\u").append(HEX_DIGITS[c >> 12]).append(HEX_DIGITS[(c >> 8) & 0xF])
+                                .append(HEX_DIGITS[(c >> 4) & 0xF]).append(HEX_DIGITS[c & 0xF]);
+                    } else {
+                        json.append(c);
+                    }
+                    break;
+            }
+        }
+        json.append('"');
+    }
+
+}
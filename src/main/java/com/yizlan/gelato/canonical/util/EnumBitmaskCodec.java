@@ -0,0 +1,318 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.util;
+
+import com.yizlan.gelato.canonical.enums.UnaryEnum;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+
+/**
+ * Codec between sets of enum elements and bitmasks, so that multi-select fields such as permissions or
+ * notification channels can be stored and compared with a few bitwise instructions.
+ * <p>
+ * Every element is mapped to a bit position, which is its ordinal by default. Ordinals stay stable as long as new
+ * elements are only appended to the enum; if that can't be guaranteed, explicit positions can be assigned by
+ * {@link #of(Class, ToIntFunction)}, for instance from the value of the enum.
+ * A set is encoded to a {@code long} when all positions are less than 64, or to a {@code long[]} otherwise.
+ * When decoding, bits which are not assigned to any element are ignored.
+ *
+ * @param <E> an enum that implements {@link UnaryEnum}
+ * @author Zen Gershon
+ * @since 2.8
+ */
+public final class EnumBitmaskCodec<E extends Enum<E> & UnaryEnum<?>> {
+
+    // bitmasks are kept small, a position can't exceed the size of 1024 words
+    private static final int MAX_POSITION = 1 << 16;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final ClassCache<EnumBitmaskCodec<?>> ORDINAL_CODEC = new ClassCache<>(
+            type -> new EnumBitmaskCodec((Class) type, (ToIntFunction<Enum<?>>) Enum::ordinal));
+
+    private final Class<E> enumClazz;
+
+    // bit position indexed by ordinal
+    private final int[] positions;
+
+    // element indexed by bit position, null if the position isn't assigned
+    private final E[] elements;
+
+    private final int words;
+
+    private EnumBitmaskCodec(Class<E> enumClazz, ToIntFunction<? super E> positionFunction) {
+        E[] constants = enumClazz.getEnumConstants();
+        if (constants == null) {
+            throw new IllegalArgumentException(enumClazz.getName() + " is not an enum.");
+        }
+
+        int[] positions = new int[constants.length];
+        int width = 0;
+        for (E constant : constants) {
+            int position = positionFunction.applyAsInt(constant);
+            if (position < 0 || position >= MAX_POSITION) {
+                throw new IllegalArgumentException("Bit position must be in [0, " + MAX_POSITION + "): " +
+                        constant + "=" + position);
+            }
+            positions[constant.ordinal()] = position;
+            width = Math.max(width, position + 1);
+        }
+
+        E[] elements = Arrays.copyOf(constants, width);
+        Arrays.fill(elements, null);
+        for (E constant : constants) {
+            int position = positions[constant.ordinal()];
+            if (elements[position] != null) {
+                throw new IllegalArgumentException("Duplicate bit position found: " + position + ", shared by " +
+                        elements[position] + " and " + constant);
+            }
+            elements[position] = constant;
+        }
+
+        this.enumClazz = enumClazz;
+        this.positions = positions;
+        this.elements = elements;
+        this.words = Math.max((width + 63) >>> 6, 1);
+    }
+
+    /**
+     * Returns the codec of the enum class which maps each element to its ordinal, cached per enum class.
+     *
+     * @param enumClazz the class of enum
+     * @param <E>       an enum that implements {@link UnaryEnum}
+     * @return the codec of the enum class
+     */
+    @SuppressWarnings("unchecked")
+    public static <E extends Enum<E> & UnaryEnum<?>> EnumBitmaskCodec<E> of(Class<E> enumClazz) {
+        Objects.requireNonNull(enumClazz, "Enum class cannot be null");
+        return (EnumBitmaskCodec<E>) ORDINAL_CODEC.get(enumClazz);
+    }
+
+    /**
+     * Creates a codec of the enum class which maps each element to an explicit bit position.
+     * The codec is immutable and should be kept by the caller, it is not cached.
+     *
+     * @param enumClazz        the class of enum
+     * @param positionFunction a function returning the bit position of an element, such as
+     *                         {@code item -> item.getValue()} for an enum with integer values
+     * @param <E>              an enum that implements {@link UnaryEnum}
+     * @return the codec of the enum class
+     * @throws IllegalArgumentException if a position is out of [0, 65536) or shared by more than one element
+     */
+    public static <E extends Enum<E> & UnaryEnum<?>> EnumBitmaskCodec<E> of(Class<E> enumClazz,
+                                                                           ToIntFunction<? super E> positionFunction) {
+        Objects.requireNonNull(enumClazz, "Enum class cannot be null");
+        Objects.requireNonNull(positionFunction, "Position function cannot be null");
+        return new EnumBitmaskCodec<>(enumClazz, positionFunction);
+    }
+
+    /**
+     * Returns the number of {@code long} words needed to encode a set.
+     *
+     * @return 1 if sets can be encoded to a single {@code long}, otherwise the length of the encoded
+     * {@code long[]}
+     */
+    public int words() {
+        return words;
+    }
+
+    /**
+     * Returns the bit position of the element.
+     *
+     * @param element the element, not nullable
+     * @return the bit position
+     */
+    public int positionOf(E element) {
+        return positions[element.ordinal()];
+    }
+
+    /**
+     * Returns the single-bit mask of the element.
+     *
+     * @param element the element, not nullable
+     * @return the mask of the element
+     * @throws IllegalStateException if the sets of the enum can't be encoded to a single {@code long}
+     */
+    public long maskOf(E element) {
+        requireSingleWord();
+        return 1L << positions[element.ordinal()];
+    }
+
+    /**
+     * Encodes the elements to a {@code long}, null elements are ignored.
+     *
+     * @param elements the elements, such as an {@link EnumSet}
+     * @return the bitmask of the elements
+     * @throws IllegalStateException if the sets of the enum can't be encoded to a single {@code long}
+     */
+    public long encode(Collection<E> elements) {
+        requireSingleWord();
+        long bits = 0L;
+        for (E element : elements) {
+            if (element != null) {
+                bits |= 1L << positions[element.ordinal()];
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Encodes the elements to a {@code long[]} whose length is {@link #words()}, null elements are ignored.
+     *
+     * @param elements the elements, such as an {@link EnumSet}
+     * @return the bitmask of the elements
+     */
+    public long[] encodeWords(Collection<E> elements) {
+        long[] bits = new long[words];
+        for (E element : elements) {
+            if (element != null) {
+                int position = positions[element.ordinal()];
+                bits[position >>> 6] |= 1L << position;
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Decodes a {@code long} bitmask to a set of elements.
+     *
+     * @param bits the bitmask
+     * @return a new set of the elements whose bits are set
+     * @throws IllegalStateException if the sets of the enum can't be encoded to a single {@code long}
+     */
+    public EnumSet<E> decode(long bits) {
+        requireSingleWord();
+        EnumSet<E> set = EnumSet.noneOf(enumClazz);
+        addAll(set, bits, 0);
+        return set;
+    }
+
+    /**
+     * Decodes a {@code long[]} bitmask to a set of elements.
+     *
+     * @param bits the bitmask, not nullable
+     * @return a new set of the elements whose bits are set
+     */
+    public EnumSet<E> decode(long[] bits) {
+        EnumSet<E> set = EnumSet.noneOf(enumClazz);
+        for (int i = 0, length = Math.min(bits.length, words); i < length; i++) {
+            addAll(set, bits[i], i << 6);
+        }
+        return set;
+    }
+
+    /**
+     * Whether the element is a member of the {@code long} bitmask.
+     *
+     * @param bits    the bitmask
+     * @param element the element, not nullable
+     * @return {@code true} if the bit of the element is set
+     */
+    public boolean contains(long bits, E element) {
+        int position = positions[element.ordinal()];
+        return position < Long.SIZE && (bits & (1L << position)) != 0L;
+    }
+
+    /**
+     * Whether the element is a member of the {@code long[]} bitmask.
+     *
+     * @param bits    the bitmask, not nullable
+     * @param element the element, not nullable
+     * @return {@code true} if the bit of the element is set
+     */
+    public boolean contains(long[] bits, E element) {
+        int position = positions[element.ordinal()];
+        int word = position >>> 6;
+        return word < bits.length && (bits[word] & (1L << position)) != 0L;
+    }
+
+    /**
+     * Whether all bits of {@code required} are set in {@code bits}.
+     *
+     * @param bits     the bitmask
+     * @param required the required bitmask
+     * @return {@code true} if {@code bits} is a superset of {@code required}
+     */
+    public static boolean containsAll(long bits, long required) {
+        return (bits & required) == required;
+    }
+
+    /**
+     * Whether all bits of {@code required} are set in {@code bits}.
+     *
+     * @param bits     the bitmask, not nullable
+     * @param required the required bitmask, not nullable
+     * @return {@code true} if {@code bits} is a superset of {@code required}
+     */
+    public static boolean containsAll(long[] bits, long[] required) {
+        for (int i = 0; i < required.length; i++) {
+            long word = i < bits.length ? bits[i] : 0L;
+            if ((word & required[i]) != required[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether any bit of {@code candidates} is set in {@code bits}.
+     *
+     * @param bits       the bitmask
+     * @param candidates the candidate bitmask
+     * @return {@code true} if {@code bits} intersects {@code candidates}
+     */
+    public static boolean containsAny(long bits, long candidates) {
+        return (bits & candidates) != 0L;
+    }
+
+    /**
+     * Whether any bit of {@code candidates} is set in {@code bits}.
+     *
+     * @param bits       the bitmask, not nullable
+     * @param candidates the candidate bitmask, not nullable
+     * @return {@code true} if {@code bits} intersects {@code candidates}
+     */
+    public static boolean containsAny(long[] bits, long[] candidates) {
+        for (int i = 0, length = Math.min(bits.length, candidates.length); i < length; i++) {
+            if ((bits[i] & candidates[i]) != 0L) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addAll(EnumSet<E> set, long bits, int offset) {
+        while (bits != 0L) {
+            int position = offset + Long.numberOfTrailingZeros(bits);
+            if (position < elements.length && elements[position] != null) {
+                set.add(elements[position]);
+            }
+            bits &= bits - 1;
+        }
+    }
+
+    private void requireSingleWord() {
+        if (words > 1) {
+            throw new IllegalStateException("The sets of " + enumClazz.getName() + " need " + words +
+                    " words, use the long[] variants instead.");
+        }
+    }
+
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.util;
+
+import com.yizlan.gelato.canonical.annotations.CompiledLookup;
+import com.yizlan.gelato.canonical.enums.UnaryEnum;
+import com.yizlan.gelato.canonical.enums.ValueEquivalence;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A complete, immutable value index of one enum class, built once on first touch.
+ * <p>
+ * Every constant is indexed by its value in an {@link EnumLookup}, which is generated at compile time for enums
+ * annotated with {@link com.yizlan.gelato.canonical.annotations.CompiledLookup}, or otherwise built at runtime
+ * by {@link IndexedLookup}, so that hits and misses are both answered by a single probe.
+ * The index honors the {@link ValueEquivalence} declared by the enum, so that lookups and
+ * {@link UnaryEnum#valueEquals} always agree:
+ * <ul>
+ *     <li>{@link ValueEquivalence#CASE_INSENSITIVE} looks strings up ignoring case</li>
+ *     <li>{@link ValueEquivalence#NUMERIC_WIDENING} looks integral numbers up by their primitive value</li>
+ *     <li>other values, and all values of {@link ValueEquivalence#EXACT}, are looked up exactly</li>
+ * </ul>
+ * <p>
+ * Constants whose value is null are not indexed, and when several constants share the same value the first
+ * declared one wins, the others are reported by {@link #getDuplicates()}. Unless the enum is annotated with
+ * {@code @CompiledLookup(allowDuplicates = true)}, shadowed constants are also logged as a warning when the index
+ * is built, since a lookup of their value silently returns another constant.
+ * <p>
+ * If the enum overrides {@link UnaryEnum#valueEquals}, declares a custom {@link ValueEquivalence} or declares
+ * different ones on its constants, the index can't know its semantics, so the lookup falls back to a scan over
+ * the cached constants.
+ *
+ * @param <E> the type of the enum
+ * @author Zen Gershon
+ * @since 2.8
+ */
+final class EnumIndex<E extends Enum<E>> {
+
+    private static final Logger LOGGER = Logger.getLogger(EnumIndex.class.getName());
+
+    private final E[] constants;
+
+    // null if the lookup falls back to a scan
+    private final ValueEquivalence equivalence;
+
+    // null if the lookup falls back to a scan
+    private final EnumLookup<E> lookup;
+
+    private final Map<Object, List<E>> duplicates;
+
+    private EnumIndex(E[] constants, ValueEquivalence equivalence, EnumLookup<E> lookup) {
+        this.constants = constants;
+        this.equivalence = equivalence;
+        this.lookup = lookup;
+        this.duplicates = collectDuplicates();
+    }
+
+    /**
+     * Builds the index of the given enum class.
+     *
+     * @param enumClazz the class of enum, whose constants should implement {@link UnaryEnum}
+     * @param <E>       the type of the enum
+     * @return the index of the enum class, not nullable
+     * @throws IllegalArgumentException if {@code enumClazz} is not an enum which implements {@link UnaryEnum}
+     */
+    static <E extends Enum<E>> EnumIndex<E> build(Class<E> enumClazz) {
+        E[] constants = enumClazz.getEnumConstants();
+        if (constants == null || !UnaryEnum.class.isAssignableFrom(enumClazz)) {
+            throw new IllegalArgumentException(enumClazz.getName() + " is not an enum which implements UnaryEnum.");
+        }
+
+        ValueEquivalence equivalence = standardEquivalence(enumClazz, constants);
+        if (equivalence == null) {
+            return warnDuplicates(enumClazz, new EnumIndex<>(constants, null, null));
+        }
+
+        EnumLookup<E> lookup = EnumLookup.generated(enumClazz);
+        return warnDuplicates(enumClazz,
+                new EnumIndex<>(constants, equivalence, lookup != null ? lookup : IndexedLookup.build(constants)));
+    }
+
+    private static <E extends Enum<E>> EnumIndex<E> warnDuplicates(Class<E> enumClazz, EnumIndex<E> index) {
+        CompiledLookup compiledLookup = enumClazz.getAnnotation(CompiledLookup.class);
+        if (!index.duplicates.isEmpty() && (compiledLookup == null || !compiledLookup.allowDuplicates())) {
+            LOGGER.log(Level.WARNING, "Values of {0} are shared by several constants, only the first declared one"
+                    + " is found by value: {1}", new Object[]{enumClazz.getName(), index.duplicates});
+        }
+        return index;
+    }
+
+    /**
+     * A constant is shadowed if looking up its own value finds an earlier constant.
+     */
+    private Map<Object, List<E>> collectDuplicates() {
+        Map<Object, List<E>> shadowed = new LinkedHashMap<>();
+        for (E constant : constants) {
+            Object value = ((UnaryEnum<?>) constant).getValue();
+            if (value == null) {
+                continue;
+            }
+
+            E first = find(value);
+            if (first != null && first != constant) {
+                Object firstValue = ((UnaryEnum<?>) first).getValue();
+                shadowed.computeIfAbsent(firstValue, k -> new ArrayList<>(Collections.singletonList(first)))
+                        .add(constant);
+            }
+        }
+
+        if (shadowed.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        for (Map.Entry<Object, List<E>> entry : shadowed.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(shadowed);
+    }
+
+    /**
+     * Finds the constant whose value matches the given value.
+     *
+     * @param value the value of enum, not nullable
+     * @return the first declared constant matching the value, if not found, return null
+     */
+    E find(Object value) {
+        if (lookup == null) {
+            return scan(value);
+        }
+        if (equivalence == ValueEquivalence.CASE_INSENSITIVE && value instanceof String) {
+            return lookup.findIgnoreCase((String) value);
+        }
+        if (equivalence == ValueEquivalence.NUMERIC_WIDENING && ValueEquivalence.isIntegral(value)) {
+            return lookup.findIntegral(((Number) value).longValue());
+        }
+        return lookup.findExact(value);
+    }
+
+    /**
+     * Finds the constant whose string value is equal to the given text, ignoring case.
+     *
+     * @param text the text to look up, not nullable
+     * @return the first declared constant matching the text, if not found, return null
+     */
+    E findIgnoreCase(CharSequence text) {
+        if (lookup == null) {
+            return scan(text.toString());
+        }
+        return lookup.findIgnoreCase(text);
+    }
+
+    /**
+     * Finds the constant whose value matches the {@link Integer} of the given primitive value.
+     *
+     * @param value the value of enum
+     * @return the first declared constant matching the value, if not found, return null
+     */
+    E findInt(int value) {
+        if (lookup == null) {
+            return scan(value);
+        }
+        if (equivalence == ValueEquivalence.NUMERIC_WIDENING) {
+            return lookup.findIntegral(value);
+        }
+        return lookup.findInt(value);
+    }
+
+    /**
+     * Finds the constant whose value matches the {@link Long} of the given primitive value.
+     *
+     * @param value the value of enum
+     * @return the first declared constant matching the value, if not found, return null
+     */
+    E findLong(long value) {
+        if (lookup == null) {
+            return scan(value);
+        }
+        if (equivalence == ValueEquivalence.NUMERIC_WIDENING) {
+            return lookup.findIntegral(value);
+        }
+        return lookup.findLong(value);
+    }
+
+    /**
+     * Returns the values shared by more than one constant.
+     *
+     * @return an unmodifiable map whose keys are the shared values, and whose values are the constants sharing
+     * them in declaration order
+     */
+    Map<Object, List<E>> getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * Returns the number of indexed constants.
+     *
+     * @return the number of entries
+     */
+    int size() {
+        return constants.length;
+    }
+
+    /**
+     * Estimates the bytes retained by this index, the constants and their values are shared with the enum.
+     *
+     * @return the approximate retained bytes
+     */
+    long retainedBytes() {
+        long bytes = CacheStats.OBJECT_HEADER + 4 * CacheStats.REFERENCE
+                + CacheStats.ofArray(constants.length, CacheStats.REFERENCE);
+        // a generated lookup holds its table in the code of its class
+        return lookup instanceof IndexedLookup ? bytes + ((IndexedLookup<E>) lookup).retainedBytes() : bytes;
+    }
+
+    /**
+     * Finds the first constant which is equal to the given value via {@link UnaryEnum#valueEquals}.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private E scan(Object value) {
+        for (E constant : constants) {
+            if (((UnaryEnum) constant).valueEquals((Comparable) value)) {
+                return constant;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the standard equivalence shared by all constants, or null if the constants compare their values
+     * in any other way.
+     */
+    private static ValueEquivalence standardEquivalence(Class<?> enumClazz, Object[] constants) {
+        if (overridesValueEquals(enumClazz)) {
+            return null;
+        }
+
+        ValueEquivalence equivalence = ValueEquivalence.CASE_INSENSITIVE;
+        for (int i = 0; i < constants.length; i++) {
+            Object constant = constants[i];
+            Class<?> constantClazz = constant.getClass();
+            if (constantClazz != enumClazz && overridesValueEquals(constantClazz)) {
+                return null;
+            }
+
+            ValueEquivalence declared = ((UnaryEnum<?>) constant).valueEquivalence();
+            if (i == 0) {
+                equivalence = declared;
+            } else if (declared != equivalence) {
+                return null;
+            }
+        }
+        return equivalence instanceof ValueEquivalence.Standard ? equivalence : null;
+    }
+
+    private static boolean overridesValueEquals(Class<?> clazz) {
+        try {
+            Method method = clazz.getMethod("valueEquals", Comparable.class);
+            return !Objects.equals(method.getDeclaringClass(), UnaryEnum.class);
+        } catch (NoSuchMethodException e) {
+            return true;
+        }
+    }
+
+}
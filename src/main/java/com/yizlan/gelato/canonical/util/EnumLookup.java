@@ -0,0 +1,162 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.yizlan.gelato.canonical.util;
+
+import com.yizlan.gelato.canonical.annotations.CompiledLookup;
+import com.yizlan.gelato.canonical.enums.UnaryEnum;
+import com.yizlan.gelato.canonical.enums.ValueEquivalence;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Lookup table from values to the elements of one enum, which {@link EnumUtils} consults according to the
+ * {@link ValueEquivalence} declared by the enum.
+ * <p>
+ * {@link EnumUtils} builds a hash-based table when an enum is first looked up. For an enum annotated with
+ * {@link CompiledLookup}, the table is instead generated at compile time by
+ * {@code com.yizlan.gelato.canonical.processor.EnumLookupProcessor}, as a class named after the binary name of the
+ * enum with the suffix {@value #GENERATED_SUFFIX}, and used by {@link EnumUtils} when it is present. The generated
+ * table is checked against the values of the constants once when it is loaded, and ignored if it doesn't match.
+ * <p>
+ * In all methods, when several elements share the same value, the first declared one is returned.
+ *
+ * @param <E> the type of the enum
+ * @author Zen Gershon
+ * @since 2.8
+ */
+public interface EnumLookup<E extends Enum<E>> {
+
+    /**
+     * The suffix appended to the binary name of an enum to name its generated lookup.
+     */
+    String GENERATED_SUFFIX = "$$Lookup";
+
+    /**
+     * Finds the element whose value is equal to the given value according to {@link Object#equals(Object)}.
+     *
+     * @param value the value, not nullable
+     * @return the element, if not found, return null
+     */
+    E findExact(Object value);
+
+    /**
+     * Finds the element whose {@link String} value is equal to the given text, ignoring case.
+     *
+     * @param text the text, not nullable
+     * @return the element, if not found, return null
+     */
+    E findIgnoreCase(CharSequence text);
+
+    /**
+     * Finds the element whose {@link Integer} value is equal to the given value.
+     *
+     * @param value the value
+     * @return the element, if not found, return null
+     */
+    E findInt(int value);
+
+    /**
+     * Finds the element whose {@link Long} value is equal to the given value.
+     *
+     * @param value the value
+     * @return the element, if not found, return null
+     */
+    E findLong(long value);
+
+    /**
+     * Finds the element whose integral value represents the same number as the given value,
+     * as {@link ValueEquivalence#NUMERIC_WIDENING} does.
+     *
+     * @param value the value
+     * @return the element, if not found, return null
+     */
+    E findIntegral(long value);
+
+    /**
+     * Hashes the text on its case-folded form, so that texts which are equal ignoring case have the same hash.
+     * It is used by generated lookups, whose hashes are computed at compile time by the same function.
+     *
+     * @param text the text, not nullable
+     * @return the case-insensitive hash of the text
+     */
+    static int foldedHash(CharSequence text) {
+        return FoldedStringIndex.hash(text);
+    }
+
+    /**
+     * Compares a string with a text, ignoring case the same way as {@link String#equalsIgnoreCase(String)} does,
+     * without converting the text into a string.
+     *
+     * @param string the string, not nullable
+     * @param text   the text, not nullable
+     * @return {@code true} if they are equal ignoring case
+     */
+    static boolean equalsIgnoreCase(String string, CharSequence text) {
+        return FoldedStringIndex.equalsIgnoreCase(string, text);
+    }
+
+    /**
+     * Loads the generated lookup of the enum class, if the enum is annotated with {@link CompiledLookup}.
+     *
+     * @param enumClazz the class of enum
+     * @param <E>       an enum that implements {@link UnaryEnum}
+     * @return the generated lookup, or null if the enum isn't annotated, its lookup wasn't generated, or its lookup
+     * doesn't find the constants by their values
+     * @throws IllegalStateException if the generated lookup can't be instantiated
+     */
+    @SuppressWarnings("unchecked")
+    static <E extends Enum<E>> EnumLookup<E> generated(Class<E> enumClazz) {
+        if (!enumClazz.isAnnotationPresent(CompiledLookup.class)) {
+            return null;
+        }
+
+        Class<?> lookupClazz;
+        try {
+            lookupClazz = Class.forName(enumClazz.getName() + GENERATED_SUFFIX, true, enumClazz.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            // the processor was not enabled when the enum was compiled
+            return null;
+        }
+
+        if (!EnumLookup.class.isAssignableFrom(lookupClazz)) {
+            throw new IllegalStateException(lookupClazz.getName() + " doesn't implement EnumLookup.");
+        }
+        EnumLookup<E> lookup;
+        try {
+            lookup = (EnumLookup<E>) lookupClazz.getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to instantiate " + lookupClazz.getName(), e);
+        }
+
+        // the table is generated from the source, it is checked once against the values of the constants
+        Map<Object, E> firsts = new HashMap<>();
+        for (E constant : enumClazz.getEnumConstants()) {
+            Object value = ((UnaryEnum<?>) constant).getValue();
+            if (value != null && lookup.findExact(value) != firsts.computeIfAbsent(value, key -> constant)) {
+                Logger.getLogger(EnumLookup.class.getName()).log(Level.WARNING, "{0} doesn''t match the values of"
+                        + " {1}, it is ignored.", new Object[]{lookupClazz.getName(), enumClazz.getName()});
+                return null;
+            }
+        }
+        return lookup;
+    }
+
+}
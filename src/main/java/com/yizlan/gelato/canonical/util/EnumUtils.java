@@ -16,14 +16,21 @@
 
 package com.yizlan.gelato.canonical.util;
 
+import com.yizlan.gelato.canonical.enums.BiEnum;
+import com.yizlan.gelato.canonical.enums.TerEnum;
 import com.yizlan.gelato.canonical.enums.UnaryEnum;
+import com.yizlan.gelato.canonical.enums.ValueEquivalence;
 
 import java.io.Serializable;
-import java.util.EnumSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
 
 /**
  * enum utils for {@link com.yizlan.gelato.canonical.enums} package
@@ -33,9 +40,19 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class EnumUtils {
 
-    // Cache to store Enum instances, to avoid repeated queries
-    private static final Map<Class<? extends Enum<?>>, Map<Object, ? extends Enum<?>>> ENUM_VALUE_CACHE =
-            new ConcurrentHashMap<>();
+    // Complete value index per enum class, built once on first touch, to avoid repeated queries
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final ClassCache<EnumIndex<?>> ENUM_INDEX = new ClassCache<>(type -> EnumIndex.build((Class) type));
+
+    // Reverse index from label to element per enum class
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final ClassCache<AttributeIndex<?>> LABEL_INDEX = new ClassCache<>(
+            type -> AttributeIndex.build((Class) type, "label", item -> ((BiEnum<?, ?>) item).getLabel()));
+
+    // Reverse index from description to element per enum class
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final ClassCache<AttributeIndex<?>> DESC_INDEX = new ClassCache<>(
+            type -> AttributeIndex.build((Class) type, "desc", item -> ((TerEnum<?, ?, ?>) item).getDesc()));
 
     /**
      * Get an element from Enum according to their source value.
@@ -46,41 +63,270 @@ public class EnumUtils {
      * @param <T>       the type of the value field
      * @return Optional containing the Enum element if found; otherwise, an empty Optional
      */
-    @SuppressWarnings("unchecked")
     public static <E extends Enum<E> & UnaryEnum<T>, T extends Comparable<T> & Serializable> Optional<E> getEnumByValueOpt(
             Class<E> enumClazz, T value) {
+        return Optional.ofNullable(getEnumByValue(enumClazz, value));
+    }
+
+    /**
+     * Get an element from Enum according to their source value.
+     * The value is compared according to the {@link ValueEquivalence} declared by the enum.
+     *
+     * @param enumClazz the class of enum
+     * @param value     the value of enum
+     * @param <E>       an enum that implements {@link UnaryEnum}
+     * @param <T>       the type of the value field
+     * @return an element from Enum, if not found, return null
+     */
+    public static <E extends Enum<E> & UnaryEnum<T>, T extends Comparable<T> & Serializable> E getEnumByValue(
+            Class<E> enumClazz, T value) {
         Objects.requireNonNull(enumClazz, "Enum class cannot be null");
         if (Objects.isNull(value)) {
-            return Optional.empty();
+            return null;
         }
 
-        Map<Object, E> typedCache = (Map<Object, E>) ENUM_VALUE_CACHE
-                .computeIfAbsent(enumClazz, k -> new ConcurrentHashMap<>());
-        E enumInstance = typedCache.get(value);
-        if (enumInstance != null) {
-            return Optional.of(enumInstance);
+        return indexOf(enumClazz).find(value);
+    }
+
+    /**
+     * Decodes a column of values into elements of Enum, resolving the index of the enum class only once.
+     * The element decoded from {@code values[i]} is stored into {@code out[i]}, null if the value is null or not
+     * found.
+     *
+     * @param enumClazz the class of enum
+     * @param values    the values of enum
+     * @param out       the array receiving the elements, whose length is at least the length of {@code values}
+     * @param <E>       an enum that implements {@link UnaryEnum}
+     * @param <T>       the type of the value field
+     * @return the number of values which are null or not found
+     * @throws IllegalArgumentException if {@code out} is shorter than {@code values}
+     */
+    public static <E extends Enum<E> & UnaryEnum<T>, T extends Comparable<T> & Serializable> int decodeAll(
+            Class<E> enumClazz, T[] values, E[] out) {
+        return decodeAll(enumClazz, values, out, null);
+    }
+
+    /**
+     * Decodes a column of values into elements of Enum, resolving the index of the enum class only once.
+     * The element decoded from {@code values[i]} is stored into {@code out[i]}, null if the value is null or not
+     * found, in which case the handler is called with the value and its index.
+     *
+     * @param enumClazz      the class of enum
+     * @param values         the values of enum
+     * @param out            the array receiving the elements, whose length is at least the length of
+     *                       {@code values}
+     * @param unknownHandler the handler of values which are null or not found, nullable
+     * @param <E>            an enum that implements {@link UnaryEnum}
+     * @param <T>            the type of the value field
+     * @return the number of values which are null or not found
+     * @throws IllegalArgumentException if {@code out} is shorter than {@code values}
+     */
+    public static <E extends Enum<E> & UnaryEnum<T>, T extends Comparable<T> & Serializable> int decodeAll(
+            Class<E> enumClazz, T[] values, E[] out, ObjIntConsumer<? super T> unknownHandler) {
+        Objects.requireNonNull(enumClazz, "Enum class cannot be null");
+        Objects.requireNonNull(values, "Values cannot be null");
+        Objects.requireNonNull(out, "Output array cannot be null");
+        if (out.length < values.length) {
+            throw new IllegalArgumentException("Output array is shorter than values: " + out.length + " < " +
+                    values.length);
         }
 
-        Optional<E> itemOptional = EnumSet.allOf(enumClazz).stream()
-                .filter(item -> item.valueEquals(value))
-                .findFirst();
-        itemOptional.ifPresent(item -> typedCache.computeIfAbsent(value, k -> item));
-        return itemOptional;
+        EnumIndex<E> index = indexOf(enumClazz);
+        int unknown = 0;
+        for (int i = 0; i < values.length; i++) {
+            T value = values[i];
+            E item = value == null ? null : index.find(value);
+            out[i] = item;
+            if (item == null) {
+                unknown++;
+                if (unknownHandler != null) {
+                    unknownHandler.accept(value, i);
+                }
+            }
+        }
+        return unknown;
     }
 
     /**
-     * Get an element from Enum according to their source value.
+     * Decodes a collection of values into elements of Enum, resolving the index of the enum class only once.
      *
      * @param enumClazz the class of enum
-     * @param value     the value of enum
+     * @param values    the values of enum
      * @param <E>       an enum that implements {@link UnaryEnum}
      * @param <T>       the type of the value field
+     * @return a list of elements in the iteration order of {@code values}, containing null where the value is
+     * null or not found
+     */
+    public static <E extends Enum<E> & UnaryEnum<T>, T extends Comparable<T> & Serializable> List<E> decodeAll(
+            Class<E> enumClazz, Collection<? extends T> values) {
+        return decodeAll(enumClazz, values, null);
+    }
+
+    /**
+     * Decodes a collection of values into elements of Enum, resolving the index of the enum class only once.
+     * The handler is called with each value which is null or not found, and its position in the iteration order.
+     *
+     * @param enumClazz      the class of enum
+     * @param values         the values of enum
+     * @param unknownHandler the handler of values which are null or not found, nullable
+     * @param <E>            an enum that implements {@link UnaryEnum}
+     * @param <T>            the type of the value field
+     * @return a list of elements in the iteration order of {@code values}, containing null where the value is
+     * null or not found
+     */
+    public static <E extends Enum<E> & UnaryEnum<T>, T extends Comparable<T> & Serializable> List<E> decodeAll(
+            Class<E> enumClazz, Collection<? extends T> values, ObjIntConsumer<? super T> unknownHandler) {
+        Objects.requireNonNull(enumClazz, "Enum class cannot be null");
+        Objects.requireNonNull(values, "Values cannot be null");
+
+        EnumIndex<E> index = indexOf(enumClazz);
+        List<E> items = new ArrayList<>(values.size());
+        int i = 0;
+        for (T value : values) {
+            E item = value == null ? null : index.find(value);
+            items.add(item);
+            if (item == null && unknownHandler != null) {
+                unknownHandler.accept(value, i);
+            }
+            i++;
+        }
+        return items;
+    }
+
+    /**
+     * Get an element from Enum according to their string value, ignoring case.
+     * The text is hashed and compared in place, so no lower-case copy of it is built.
+     *
+     * @param enumClazz the class of enum
+     * @param text      the value of enum, such as a {@link String} or a {@link StringBuilder}
+     * @param <E>       an enum that implements {@link UnaryEnum} with {@link String} value
      * @return an element from Enum, if not found, return null
      */
-    public static <E extends Enum<E> & UnaryEnum<T>, T extends Comparable<T> & Serializable> E getEnumByValue(
-            Class<E> enumClazz, T value) {
-        Optional<E> valueOpt = getEnumByValueOpt(enumClazz, value);
-        return valueOpt.orElseGet(() -> null);
+    public static <E extends Enum<E> & UnaryEnum<String>> E getEnumByValueIgnoreCase(Class<E> enumClazz,
+                                                                                      CharSequence text) {
+        Objects.requireNonNull(enumClazz, "Enum class cannot be null");
+        if (Objects.isNull(text)) {
+            return null;
+        }
+
+        return indexOf(enumClazz).findIgnoreCase(text);
+    }
+
+    /**
+     * Get an element from Enum according to their primitive int value, without boxing the value.
+     * The value matches {@link Integer} values, or any integral values if the enum declares
+     * {@link ValueEquivalence#NUMERIC_WIDENING}.
+     *
+     * @param enumClazz the class of enum
+     * @param value     the value of enum
+     * @param <E>       an enum that implements {@link UnaryEnum} with numeric value
+     * @return an element from Enum, if not found, return null
+     */
+    public static <E extends Enum<E> & UnaryEnum<? extends Number>> E getEnumByIntValue(Class<E> enumClazz,
+                                                                                       int value) {
+        Objects.requireNonNull(enumClazz, "Enum class cannot be null");
+        return indexOf(enumClazz).findInt(value);
+    }
+
+    /**
+     * Get an element from Enum according to their primitive long value, without boxing the value.
+     * The value matches {@link Long} values, or any integral values if the enum declares
+     * {@link ValueEquivalence#NUMERIC_WIDENING}.
+     *
+     * @param enumClazz the class of enum
+     * @param value     the value of enum
+     * @param <E>       an enum that implements {@link UnaryEnum} with numeric value
+     * @return an element from Enum, if not found, return null
+     */
+    public static <E extends Enum<E> & UnaryEnum<? extends Number>> E getEnumByLongValue(Class<E> enumClazz,
+                                                                                        long value) {
+        Objects.requireNonNull(enumClazz, "Enum class cannot be null");
+        return indexOf(enumClazz).findLong(value);
+    }
+
+    /**
+     * Get an element from Enum according to their label, which is compared according to
+     * {@link Object#equals(Object)}.
+     *
+     * @param enumClazz the class of enum
+     * @param label     the label of enum
+     * @param <E>       an enum that implements {@link BiEnum}
+     * @param <U>       the type of the label field
+     * @return an element from Enum, if not found, return null
+     * @throws IllegalArgumentException if the label is shared by more than one element of Enum
+     */
+    @SuppressWarnings("unchecked")
+    public static <E extends Enum<E> & BiEnum<?, U>, U extends Comparable<U> & Serializable> E getEnumByLabel(
+            Class<E> enumClazz, U label) {
+        Objects.requireNonNull(enumClazz, "Enum class cannot be null");
+        if (Objects.isNull(label)) {
+            return null;
+        }
+
+        return ((AttributeIndex<E>) LABEL_INDEX.get(enumClazz)).find(label);
+    }
+
+    /**
+     * Get an element from Enum according to their description, which is compared according to
+     * {@link Object#equals(Object)}.
+     *
+     * @param enumClazz the class of enum
+     * @param desc      the description of enum
+     * @param <E>       an enum that implements {@link TerEnum}
+     * @param <S>       the type of the desc field
+     * @return an element from Enum, if not found, return null
+     * @throws IllegalArgumentException if the description is shared by more than one element of Enum
+     */
+    @SuppressWarnings("unchecked")
+    public static <E extends Enum<E> & TerEnum<?, ?, S>, S extends Comparable<S> & Serializable> E getEnumByDesc(
+            Class<E> enumClazz, S desc) {
+        Objects.requireNonNull(enumClazz, "Enum class cannot be null");
+        if (Objects.isNull(desc)) {
+            return null;
+        }
+
+        return ((AttributeIndex<E>) DESC_INDEX.get(enumClazz)).find(desc);
+    }
+
+    /**
+     * Get the values which are shared by more than one element of Enum.
+     * Only the first declared element of them can be found by its value, the others are shadowed.
+     *
+     * @param enumClazz the class of enum
+     * @param <E>       an enum that implements {@link UnaryEnum}
+     * @param <T>       the type of the value field
+     * @return an unmodifiable map whose keys are the shared values, and whose values are the elements sharing
+     * them in declaration order; empty if there are no duplicate values
+     */
+    @SuppressWarnings("unchecked")
+    public static <E extends Enum<E> & UnaryEnum<T>, T extends Comparable<T> & Serializable>
+            Map<T, List<E>> getDuplicateValues(Class<E> enumClazz) {
+        Objects.requireNonNull(enumClazz, "Enum class cannot be null");
+        return (Map<T, List<E>>) (Map<?, ?>) indexOf(enumClazz).getDuplicates();
+    }
+
+    /**
+     * Inspects the indexes cached by this class. They are held per enum class, so that they are unloaded
+     * together with the enum class and never pin its class loader.
+     *
+     * @return the statistics of the cached indexes, where entries are the indexed elements, labels and
+     * descriptions
+     */
+    public static CacheStats getCacheStats() {
+        CacheStats values = ENUM_INDEX.stats(EnumIndex::size, EnumIndex::retainedBytes);
+        CacheStats labels = LABEL_INDEX.stats(AttributeIndex::size, AttributeIndex::retainedBytes);
+        CacheStats descs = DESC_INDEX.stats(AttributeIndex::size, AttributeIndex::retainedBytes);
+
+        Set<Class<?>> classes = new HashSet<>(ENUM_INDEX.classes());
+        classes.addAll(LABEL_INDEX.classes());
+        classes.addAll(DESC_INDEX.classes());
+        return new CacheStats(classes.size(), values.getEntries() + labels.getEntries() + descs.getEntries(),
+                values.getRetainedBytes() + labels.getRetainedBytes() + descs.getRetainedBytes());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Enum<E>> EnumIndex<E> indexOf(Class<E> enumClazz) {
+        return (EnumIndex<E>) ENUM_INDEX.get(enumClazz);
     }
 
 }
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.util;
+
+/**
+ * An immutable, case-insensitive index from string keys to elements.
+ * <p>
+ * Keys are hashed and compared character by character on their case-folded form, the same way as
+ * {@link String#equalsIgnoreCase(String)} does, so that any {@link CharSequence} can be looked up without building
+ * a lower-case copy of it. The size of the index is bounded by the number of keys it is built from, whatever the
+ * casing of the queries is. When keys are equal ignoring case, the first element wins.
+ *
+ * @param <E> the type of the elements
+ * @author Zen Gershon
+ * @since 2.8
+ */
+final class FoldedStringIndex<E> {
+
+    private static final FoldedStringIndex<?> EMPTY = new FoldedStringIndex<>(new String[1], new Object[1]);
+
+    private final String[] keys;
+
+    private final Object[] elements;
+
+    private FoldedStringIndex(String[] keys, Object[] elements) {
+        this.keys = keys;
+        this.elements = elements;
+    }
+
+    /**
+     * Returns an index without any key.
+     *
+     * @param <E> the type of the elements
+     * @return an empty index
+     */
+    @SuppressWarnings("unchecked")
+    static <E> FoldedStringIndex<E> empty() {
+        return (FoldedStringIndex<E>) EMPTY;
+    }
+
+    /**
+     * Builds an index from the first {@code size} keys and elements.
+     *
+     * @param keys     the keys, not nullable
+     * @param elements the elements, not nullable, {@code elements[i]} is associated with {@code keys[i]}
+     * @param size     the number of pairs to index
+     * @param <E>      the type of the elements
+     * @return an index of the pairs
+     */
+    static <E> FoldedStringIndex<E> build(String[] keys, Object[] elements, int size) {
+        if (size == 0) {
+            return empty();
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(size * 2 - 1, 1)) << 1;
+        String[] table = new String[capacity];
+        Object[] values = new Object[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = hash(keys[i]) & mask;
+            while (table[slot] != null && !equalsIgnoreCase(table[slot], keys[i])) {
+                slot = (slot + 1) & mask;
+            }
+            if (table[slot] == null) {
+                table[slot] = keys[i];
+                values[slot] = elements[i];
+            }
+        }
+        return new FoldedStringIndex<>(table, values);
+    }
+
+    /**
+     * Gets the element whose key is equal to the given text, ignoring case.
+     *
+     * @param text the text to look up, not nullable
+     * @return the element, if not found, return null
+     */
+    @SuppressWarnings("unchecked")
+    E get(CharSequence text) {
+        String[] table = this.keys;
+        int mask = table.length - 1;
+        int slot = hash(text) & mask;
+        String key;
+        while ((key = table[slot]) != null) {
+            if (equalsIgnoreCase(key, text)) {
+                return (E) elements[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Estimates the bytes retained by this index, the keys are shared with the indexed values.
+     *
+     * @return the approximate retained bytes
+     */
+    long retainedBytes() {
+        return CacheStats.OBJECT_HEADER + 2 * CacheStats.REFERENCE
+                + 2 * CacheStats.ofArray(keys.length, CacheStats.REFERENCE);
+    }
+
+    /**
+     * Folds a character, so that two characters are folded equally if and only if
+     * {@link String#equalsIgnoreCase(String)} considers them equal.
+     */
+    private static char fold(char c) {
+        if (c < 0x80) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * Hashes the text on its case-folded form.
+     */
+    static int hash(CharSequence text) {
+        int h = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            h = 31 * h + fold(text.charAt(i));
+        }
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Compares the key with the text on their case-folded form.
+     */
+    static boolean equalsIgnoreCase(String key, CharSequence text) {
+        int length = key.length();
+        if (length != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c1 = key.charAt(i);
+            char c2 = text.charAt(i);
+            if (c1 != c2 && fold(c1) != fold(c2)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
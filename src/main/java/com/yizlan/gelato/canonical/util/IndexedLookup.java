@@ -0,0 +1,155 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.yizlan.gelato.canonical.util;
+
+import com.yizlan.gelato.canonical.enums.UnaryEnum;
+import com.yizlan.gelato.canonical.enums.ValueEquivalence;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * The lookup table of an enum built at runtime, from the values of its elements.
+ * <p>
+ * All values are held in a hash map, string values are additionally held in a {@link FoldedStringIndex}, and
+ * integral values in {@link PrimitiveIndex PrimitiveIndexes}, so that every lookup is a single probe.
+ * Elements whose value is null are not indexed.
+ *
+ * @param <E> the type of the enum
+ * @author Zen Gershon
+ * @since 2.8
+ */
+final class IndexedLookup<E extends Enum<E>> implements EnumLookup<E> {
+
+    private final Map<Object, E> values;
+
+    private final FoldedStringIndex<E> strings;
+
+    private final PrimitiveIndex<E> intValues;
+
+    private final PrimitiveIndex<E> longValues;
+
+    private final PrimitiveIndex<E> integralValues;
+
+    private IndexedLookup(Map<Object, E> values, FoldedStringIndex<E> strings, PrimitiveIndex<E> intValues,
+                          PrimitiveIndex<E> longValues, PrimitiveIndex<E> integralValues) {
+        this.values = values;
+        this.strings = strings;
+        this.intValues = intValues;
+        this.longValues = longValues;
+        this.integralValues = integralValues;
+    }
+
+    /**
+     * Builds the lookup table of the elements.
+     *
+     * @param constants the elements of the enum, which should implement {@link UnaryEnum}
+     * @param <E>       the type of the enum
+     * @return the lookup table of the elements
+     */
+    static <E extends Enum<E>> IndexedLookup<E> build(E[] constants) {
+        Map<Object, E> values = new HashMap<>(Math.max(constants.length * 2, 16));
+        String[] stringKeys = new String[constants.length];
+        Object[] stringElements = new Object[constants.length];
+        int stringSize = 0;
+        for (E constant : constants) {
+            Object value = ((UnaryEnum<?>) constant).getValue();
+            if (value instanceof String) {
+                stringKeys[stringSize] = (String) value;
+                stringElements[stringSize++] = constant;
+            }
+            if (value != null) {
+                values.putIfAbsent(value, constant);
+            }
+        }
+
+        PrimitiveIndex<E> intValues = primitiveIndex(constants, Integer.class::isInstance);
+        PrimitiveIndex<E> longValues = primitiveIndex(constants, Long.class::isInstance);
+        // the values of an enum usually share one type, so the integral index is one of the others
+        PrimitiveIndex<E> empty = PrimitiveIndex.empty();
+        PrimitiveIndex<E> integralValues;
+        if (intValues != empty && longValues == empty) {
+            integralValues = intValues;
+        } else if (intValues == empty && longValues != empty) {
+            integralValues = longValues;
+        } else {
+            integralValues = primitiveIndex(constants, ValueEquivalence::isIntegral);
+        }
+        return new IndexedLookup<>(values, FoldedStringIndex.build(stringKeys, stringElements, stringSize),
+                intValues, longValues, integralValues);
+    }
+
+    /**
+     * Indexes the constants whose value is accepted by the filter by the primitive value.
+     */
+    private static <E extends Enum<E>> PrimitiveIndex<E> primitiveIndex(E[] constants, Predicate<Object> filter) {
+        long[] keys = new long[constants.length];
+        Object[] elements = new Object[constants.length];
+        int size = 0;
+        for (E constant : constants) {
+            Object value = ((UnaryEnum<?>) constant).getValue();
+            if (value != null && filter.test(value)) {
+                keys[size] = ((Number) value).longValue();
+                elements[size++] = constant;
+            }
+        }
+        return PrimitiveIndex.build(keys, elements, size);
+    }
+
+    @Override
+    public E findExact(Object value) {
+        return values.get(value);
+    }
+
+    @Override
+    public E findIgnoreCase(CharSequence text) {
+        return strings.get(text);
+    }
+
+    @Override
+    public E findInt(int value) {
+        return intValues.get(value);
+    }
+
+    @Override
+    public E findLong(long value) {
+        return longValues.get(value);
+    }
+
+    @Override
+    public E findIntegral(long value) {
+        return integralValues.get(value);
+    }
+
+    /**
+     * Estimates the bytes retained by this lookup table, the elements and their values are shared with the enum.
+     *
+     * @return the approximate retained bytes
+     */
+    long retainedBytes() {
+        long bytes = CacheStats.OBJECT_HEADER + 5 * CacheStats.REFERENCE
+                + CacheStats.ofHashMap(values.size())
+                + strings.retainedBytes()
+                + intValues.retainedBytes()
+                + longValues.retainedBytes();
+        return integralValues == intValues || integralValues == longValues ? bytes
+                : bytes + integralValues.retainedBytes();
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.util;
+
+/**
+ * An immutable index from primitive {@code long} keys to elements, which never boxes the key on lookup.
+ * <p>
+ * When the keys are small and contiguous, the elements are stored in a dense array addressed by
+ * {@code key - min}, otherwise they are stored in an open-addressing table with linear probing.
+ * When a key is added more than once, the first element wins.
+ *
+ * @param <E> the type of the elements
+ * @author Zen Gershon
+ * @since 2.8
+ */
+final class PrimitiveIndex<E> {
+
+    private static final PrimitiveIndex<?> EMPTY = new PrimitiveIndex<>(0L, new Object[0], null);
+
+    // the lowest key, only used by the dense layout
+    private final long min;
+
+    private final Object[] elements;
+
+    // null for the dense layout
+    private final long[] keys;
+
+    private PrimitiveIndex(long min, Object[] elements, long[] keys) {
+        this.min = min;
+        this.elements = elements;
+        this.keys = keys;
+    }
+
+    /**
+     * Returns an index without any key.
+     *
+     * @param <E> the type of the elements
+     * @return an empty index
+     */
+    @SuppressWarnings("unchecked")
+    static <E> PrimitiveIndex<E> empty() {
+        return (PrimitiveIndex<E>) EMPTY;
+    }
+
+    /**
+     * Builds an index from the first {@code size} keys and elements.
+     *
+     * @param keys     the keys
+     * @param elements the elements, not nullable, {@code elements[i]} is associated with {@code keys[i]}
+     * @param size     the number of pairs to index
+     * @param <E>      the type of the elements
+     * @return an index of the pairs
+     */
+    static <E> PrimitiveIndex<E> build(long[] keys, Object[] elements, int size) {
+        if (size == 0) {
+            return empty();
+        }
+
+        long min = keys[0];
+        long max = keys[0];
+        for (int i = 1; i < size; i++) {
+            min = Math.min(min, keys[i]);
+            max = Math.max(max, keys[i]);
+        }
+
+        // at least half of the slots are used, or the span is tiny anyway
+        long span = max - min + 1;
+        if (span > 0 && span <= Math.max(64, 2L * size)) {
+            Object[] dense = new Object[(int) span];
+            for (int i = size - 1; i >= 0; i--) {
+                dense[(int) (keys[i] - min)] = elements[i];
+            }
+            return new PrimitiveIndex<>(min, dense, null);
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(size * 2 - 1, 1)) << 1;
+        long[] table = new long[capacity];
+        Object[] values = new Object[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = hash(keys[i]) & mask;
+            while (values[slot] != null && table[slot] != keys[i]) {
+                slot = (slot + 1) & mask;
+            }
+            if (values[slot] == null) {
+                table[slot] = keys[i];
+                values[slot] = elements[i];
+            }
+        }
+        return new PrimitiveIndex<>(0L, values, table);
+    }
+
+    /**
+     * Gets the element associated with the key.
+     *
+     * @param key the key
+     * @return the element, if not found, return null
+     */
+    @SuppressWarnings("unchecked")
+    E get(long key) {
+        Object[] values = this.elements;
+        if (keys == null) {
+            long offset = key - min;
+            if (offset < 0 || offset >= values.length) {
+                return null;
+            }
+            return (E) values[(int) offset];
+        }
+
+        int mask = values.length - 1;
+        int slot = hash(key) & mask;
+        Object value;
+        while ((value = values[slot]) != null) {
+            if (keys[slot] == key) {
+                return (E) value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Estimates the bytes retained by this index.
+     *
+     * @return the approximate retained bytes
+     */
+    long retainedBytes() {
+        long bytes = CacheStats.OBJECT_HEADER + 8 + 2 * CacheStats.REFERENCE
+                + CacheStats.ofArray(elements.length, CacheStats.REFERENCE);
+        return keys == null ? bytes : bytes + CacheStats.ofArray(keys.length, Long.BYTES);
+    }
+
+    /**
+     * Spreads the bits of the key, so that sequential or strided keys don't cluster in the table.
+     */
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+}
@@ -18,10 +18,14 @@ package com.yizlan.gelato.canonical;
 
 import com.yizlan.gelato.canonical.exception.BusinessException;
 import com.yizlan.gelato.canonical.exception.I18nException;
+import com.yizlan.gelato.canonical.panic.MetaException;
 import com.yizlan.gelato.canonical.support.I18nAssert;
+import com.yizlan.gelato.canonical.support.MetaAssert;
+import com.yizlan.gelato.canonical.util.CacheStats;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class AssertTest {
 
@@ -46,4 +50,28 @@ class AssertTest {
         }
     }
 
+    @Test
+    void testFactoryCacheStats() {
+        // registers the factory of I18nException, if no other test has already
+        I18nException e = assertThrows(I18nException.class, () -> I18nAssert.isTrue(false, "str"));
+        assertEquals("str", e.getCode());
+
+        CacheStats stats = MetaAssert.getFactoryCacheStats();
+        assert stats.getEntries() >= 1;
+        assert stats.getClasses() >= stats.getEntries();
+        assertEquals(16L * stats.getClasses(), stats.getRetainedBytes());
+
+        // looking up a class without a factory doesn't cache it
+        assertThrows(IllegalStateException.class, UnregisteredAssert::fail);
+        assertEquals(stats.getClasses(), MetaAssert.getFactoryCacheStats().getClasses());
+    }
+
+    private static final class UnregisteredAssert extends MetaAssert {
+
+        static void fail() {
+            codeAssert(true).throwException(MetaException.class, "str");
+        }
+
+    }
+
 }
@@ -17,20 +17,53 @@
 package com.yizlan.gelato.canonical;
 
 import com.yizlan.gelato.canonical.dictionary.BiDictionary;
+import com.yizlan.gelato.canonical.dictionary.DictionaryTable;
+import com.yizlan.gelato.canonical.dictionary.DictionaryTree;
+import com.yizlan.gelato.canonical.dictionary.InternedBiDictionary;
+import com.yizlan.gelato.canonical.dictionary.InternedTerDictionary;
+import com.yizlan.gelato.canonical.dictionary.Region;
+import com.yizlan.gelato.canonical.dictionary.SortedArrayMap;
 import com.yizlan.gelato.canonical.dictionary.TerDictionary;
+import com.yizlan.gelato.canonical.dictionary.TreeDictionary;
 import com.yizlan.gelato.canonical.dictionary.WarningSign;
+import com.yizlan.gelato.canonical.dictionary.store.DictionaryDelta;
+import com.yizlan.gelato.canonical.dictionary.store.DictionarySnapshot;
+import com.yizlan.gelato.canonical.dictionary.store.DictionaryStore;
+import com.yizlan.gelato.canonical.dictionary.store.FrontCodedDictionary;
+import com.yizlan.gelato.canonical.dictionary.store.MappedDictionary;
+import com.yizlan.gelato.canonical.dictionary.store.PrefixIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class DictionaryTest {
     private static final List<WarningSign> warningSigns = new ArrayList<>();
 
     @BeforeEach
     void init() {
+        warningSigns.clear();
         WarningSign red = new WarningSign();
         red.setCode("Red");
         red.setName("红色");
@@ -54,4 +87,318 @@ public class DictionaryTest {
                 .forEach((key, desc) -> System.out.println("TerDictionary-toDescMap：" + key + "____" + desc));
     }
 
+    @Test
+    void testToCompactMap() throws IOException, ClassNotFoundException {
+        Map<String, String> map = BiDictionary.toCompactMap(warningSigns);
+        assert map.equals(BiDictionary.toMap(warningSigns));
+        assert map.keySet().iterator().next().equals("Green");
+        assert map.get(1) == null && !map.containsKey(null);
+        assert TerDictionary.toCompactDescMap(warningSigns).equals(TerDictionary.toDescMap(warningSigns));
+        assert BiDictionary.toCompactMap(null).isEmpty();
+        assertThrows(UnsupportedOperationException.class, () -> map.put("Blue", "蓝色"));
+
+        WarningSign red = new WarningSign();
+        red.setCode("Red");
+        red.setName("赤色");
+        red.setDesc("#ff0000");
+        warningSigns.add(red);
+        assertThrows(IllegalArgumentException.class, () -> BiDictionary.toCompactMap(warningSigns));
+        assert "赤色".equals(BiDictionary.toCompactMap(warningSigns, (name1, name2) -> name2).get("Red"));
+        assert TerDictionary.toCompactDescMap(warningSigns, (desc1, desc2) -> desc1).get("Red").equals("#667788");
+
+        List<InternedBiDictionary<Integer, String>> numbers = new ArrayList<>();
+        for (int i = 10000; i > 0; i--) {
+            numbers.add(InternedBiDictionary.of(i, String.valueOf(i)));
+        }
+        SortedArrayMap<Integer, String> compact = (SortedArrayMap<Integer, String>) BiDictionary.toCompactMap(numbers);
+        assert compact.equals(BiDictionary.toMap(numbers));
+        SortedArrayMap<Integer, String> half = (SortedArrayMap<Integer, String>) BiDictionary.toCompactMap(
+                numbers.subList(0, 5000));
+        // the estimate is two references per entry
+        assert compact.retainedBytes() - half.retainedBytes() == 5000 * 8;
+
+        WarningSign blank = new WarningSign();
+        blank.setCode("Blank");
+        assertThrows(NullPointerException.class, () -> BiDictionary.toMap(Collections.singletonList(blank)));
+        assertThrows(NullPointerException.class, () -> BiDictionary.toCompactMap(Collections.singletonList(blank)));
+        assertThrows(NullPointerException.class, () -> TerDictionary.toCompactDescMap(
+                Collections.singletonList(blank), (desc1, desc2) -> desc1));
+        assert SortedArrayMap.of(Collections.singletonList(blank), WarningSign::getCode, WarningSign::getName)
+                .containsKey("Blank");
+
+        // serializable like the map of toMap
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(compact);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Object copy = in.readObject();
+            assert copy instanceof SortedArrayMap && copy.equals(compact);
+            assert ((SortedArrayMap<?, ?>) copy).entrySet().size() == 10000;
+        }
+    }
+
+    @Test
+    void testCompactMapFootprint() {
+        List<InternedBiDictionary<Integer, String>> numbers = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            numbers.add(InternedBiDictionary.of(i, String.valueOf(i)));
+        }
+        // the maps share their keys and values, so that only the maps themselves are measured
+        int count = 2000;
+        long entries = (long) count * numbers.size();
+        Object[] compacts = new Object[count];
+        long compactBytes = heapDelta(() -> {
+            for (int i = 0; i < count; i++) {
+                compacts[i] = BiDictionary.toCompactMap(numbers);
+            }
+        });
+        Object[] hashMaps = new Object[count];
+        long hashMapBytes = heapDelta(() -> {
+            for (int i = 0; i < count; i++) {
+                hashMaps[i] = BiDictionary.toMap(numbers);
+            }
+        });
+
+        System.out.println("SortedArrayMap bytes per entry：" + (double) compactBytes / entries
+                + ", HashMap bytes per entry：" + (double) hashMapBytes / entries);
+        assert compacts[count - 1].equals(hashMaps[count - 1]);
+        assert compactBytes < hashMapBytes / 2;
+    }
+
+    private static long heapDelta(Runnable allocation) {
+        long before = usedHeap();
+        allocation.run();
+        return usedHeap() - before;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Test
+    void testTable() {
+        DictionaryTable<String, String, String> table = TerDictionary.toTable(warningSigns);
+        assert table.size() == 2;
+        assert "红色".equals(table.nameOf("Red")) && "#997766".equals(table.descOf("Green"));
+        assert table.nameOf("Blue") == null && table.indexOf(null) == -1;
+        assert table.codeAt(1).equals("Green");
+        assert table.entryAt(0) == InternedTerDictionary.copyOf(warningSigns.get(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> table.entryAt(2));
+        assert TerDictionary.<String, String, String>toTable(null).descOf("Red") == null;
+
+        warningSigns.add(null);
+        warningSigns.add(warningSigns.get(0));
+        assertThrows(IllegalArgumentException.class, () -> TerDictionary.toTable(warningSigns));
+    }
+
+    @Test
+    void testCollector() {
+        Map<String, String> names = warningSigns.stream().collect(BiDictionary.collector());
+        assert names.equals(BiDictionary.toMap(warningSigns));
+        assert StreamSupport.stream(warningSigns.spliterator(), false)
+                .collect(TerDictionary.descCollector()).equals(TerDictionary.toDescMap(warningSigns));
+
+        List<InternedBiDictionary<Integer, String>> numbers = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            numbers.add(InternedBiDictionary.of(i % 5000, String.valueOf(i)));
+        }
+        Map<Integer, String> firsts = numbers.parallelStream().collect(BiDictionary.collector((name1, name2) -> name1));
+        assert firsts.size() == 5000 && firsts.get(1).equals("1");
+        ConcurrentMap<Integer, String> lasts = numbers.parallelStream()
+                .collect(BiDictionary.concurrentCollector((name1, name2) -> name1.compareTo(name2) > 0 ? name2 : name1));
+        assert lasts.size() == 5000 && lasts.get(1).equals("1");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> numbers.parallelStream().collect(BiDictionary.collector()));
+        assertThrows(IllegalArgumentException.class,
+                () -> numbers.parallelStream().collect(BiDictionary.concurrentCollector()));
+    }
+
+    @Test
+    void testMappedDictionary(@TempDir Path tempDir) throws IOException {
+        List<BiDictionary<String, String>> rows = new ArrayList<>(warningSigns);
+        for (int i = 0; i < 10000; i++) {
+            rows.add(InternedBiDictionary.of(String.valueOf(110000 + i), "区域" + i));
+        }
+        Path file = tempDir.resolve("regions.dict");
+        MappedDictionary.write(file, rows);
+
+        MappedDictionary dictionary = MappedDictionary.open(file);
+        assert dictionary.size() == 10002;
+        assert "红色".equals(dictionary.nameOf("Red")) && "#997766".equals(dictionary.descOf("Green"));
+        assert "区域42".equals(dictionary.nameOf("110042")) && dictionary.descOf("110042") == null;
+        assert !dictionary.contains("Blue") && dictionary.nameOf(null) == null;
+        assert dictionary.codeAt(0).equals("110000");
+
+        rows.add(warningSigns.get(0));
+        assertThrows(IllegalArgumentException.class, () -> MappedDictionary.write(file, rows));
+        assert MappedDictionary.open(file).size() == 10002;
+
+        // a directory which is not empty can't be replaced, the temporary file is deleted
+        Path occupied = Files.createDirectories(tempDir.resolve("occupied.dict").resolve("child")).getParent();
+        assertThrows(UncheckedIOException.class, () -> MappedDictionary.write(occupied, warningSigns));
+        String[] files = tempDir.toFile().list();
+        assert files != null && files.length == 2 : Arrays.toString(files);
+
+        // the written file has the permissions of a new file, then keeps those of the file it replaces
+        if (Files.getFileStore(tempDir).supportsFileAttributeView(PosixFileAttributeView.class)) {
+            Path shared = tempDir.resolve("shared.dict");
+            MappedDictionary.write(shared, warningSigns);
+            Path plain = Files.createFile(tempDir.resolve("plain.dict"));
+            assert Files.getPosixFilePermissions(shared).equals(Files.getPosixFilePermissions(plain));
+
+            Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-rw-r--");
+            Files.setPosixFilePermissions(shared, permissions);
+            MappedDictionary.write(shared, rows.subList(0, 100));
+            assert Files.getPosixFilePermissions(shared).equals(permissions);
+            assert MappedDictionary.open(shared).size() == 100;
+        }
+    }
+
+    @Test
+    void testFrontCodedDictionary() {
+        List<BiDictionary<String, String>> rows = new ArrayList<>(warningSigns);
+        for (int i = 0; i < 10000; i++) {
+            rows.add(InternedTerDictionary.of(String.valueOf(110000 + i * 7), "区域" + i % 100, "市辖区"));
+        }
+        FrontCodedDictionary dictionary = FrontCodedDictionary.of(rows);
+        assert dictionary.size() == 10002;
+        assert "红色".equals(dictionary.nameOf("Red")) && "#997766".equals(dictionary.descOf("Green"));
+        assert "区域42".equals(dictionary.nameOf("110294")) && "市辖区".equals(dictionary.descOf("110294"));
+        assert !dictionary.contains("110001") && !dictionary.contains("0") && !dictionary.contains("Zed");
+        for (int ordinal = 0; ordinal < dictionary.size(); ordinal++) {
+            assert dictionary.ordinalOf(dictionary.codeAt(ordinal)) == ordinal;
+        }
+        assert dictionary.codeAt(10001).equals("Red") && dictionary.descAt(0).equals("市辖区");
+        assert FrontCodedDictionary.of(Collections.emptyList()).ordinalOf("Red") == -1;
+
+        System.out.println("FrontCodedDictionary bytes per entry：" + dictionary.offHeapBytes() / 10002.0);
+        assert dictionary.offHeapBytes() < 20 * 10002;
+
+        rows.add(warningSigns.get(0));
+        assertThrows(IllegalArgumentException.class, () -> FrontCodedDictionary.of(rows));
+    }
+
+    @Test
+    void testPrefixIndex() {
+        List<BiDictionary<String, String>> rows = new ArrayList<>(warningSigns);
+        rows.add(InternedTerDictionary.of("Blue", "Blue sky", "blue"));
+        rows.add(InternedTerDictionary.of("Navy", "Navy blue", "Blue navy"));
+        DictionarySnapshot<String, String, String> snapshot = DictionarySnapshot.of(1L, rows);
+
+        PrefixIndex<String, String, String> names = PrefixIndex.of(snapshot);
+        assert names.size() == 4;
+        assert names.search("BLU", 10).size() == 1 && names.search("blue", 10).get(0).getCode().equals("Blue");
+        assert names.search("红", 10).get(0).getCode().equals("Red");
+        assert names.search("", 2).size() == 2 && names.search("x", 10).isEmpty();
+
+        PrefixIndex<String, String, String> labels = PrefixIndex.of(snapshot, true);
+        List<TerDictionary<String, String, String>> blues = labels.search("blue", 10);
+        assert blues.size() == 2 && blues.get(0).getCode().equals("Blue") && blues.get(1).getCode().equals("Navy");
+        assert labels.search("#99", 10).get(0).getCode().equals("Green");
+        assertThrows(IllegalArgumentException.class, () -> labels.search("blue", -1));
+    }
+
+    @Test
+    void testTree() {
+        List<Region> regions = new ArrayList<>();
+        regions.add(new Region("110101", "东城区", "110100"));
+        regions.add(new Region("110000", "北京市", null));
+        regions.add(new Region("110100", "市辖区", "110000"));
+        regions.add(new Region("110102", "西城区", "110100"));
+        regions.add(new Region("120000", "天津市", null));
+        DictionaryTree<String, String> tree = TreeDictionary.toTree(regions);
+
+        assert tree.size() == 5 && tree.entries().get(0).getCode().equals("110000");
+        assert tree.isAncestor("110000", "110102") && tree.isDescendant("110101", "110100");
+        assert !tree.isAncestor("110102", "110000") && !tree.isAncestor("110000", "110000");
+        assert !tree.isAncestor("120000", "110101") && !tree.isAncestor("999999", "110101");
+        assert tree.subtreeOf("110100").size() == 3 && tree.descendantsOf("110000").size() == 3;
+        assert tree.descendantsOf("110100").get(0).getCode().equals("110101");
+        assert tree.parentOf("110100").getName().equals("北京市") && tree.parentOf("110000") == null;
+        assert tree.depthOf("110102") == 2 && tree.depthOf("120000") == 0;
+        assert TreeDictionary.<String, String>toTree(null).size() == 0;
+
+        regions.add(new Region("130000", "河北省", "000000"));
+        assertThrows(IllegalArgumentException.class, () -> TreeDictionary.toTree(regions));
+        regions.set(5, new Region("130000", "河北省", "130100"));
+        regions.add(new Region("130100", "石家庄市", "130000"));
+        assertThrows(IllegalArgumentException.class, () -> TreeDictionary.toTree(regions));
+    }
+
+    @Test
+    void testInterned() {
+        InternedTerDictionary<String, String, String> red = InternedTerDictionary.copyOf(warningSigns.get(0));
+        assert red == InternedTerDictionary.of("Red", "红色", "#667788");
+        assert red.hashCode() == InternedTerDictionary.of("Red", "红色", "#667788").hashCode();
+        assert red != InternedTerDictionary.<String, String, String>of("Red", "红色", null);
+        assertThrows(UnsupportedOperationException.class, () -> red.setDesc("#000000"));
+
+        InternedBiDictionary<String, String> green = InternedBiDictionary.of("Green", "绿色");
+        assert green == InternedBiDictionary.copyOf(green);
+        assert !green.equals(InternedTerDictionary.<String, String, String>of("Green", "绿色", null));
+        assertThrows(UnsupportedOperationException.class, () -> green.setName("Blue"));
+    }
+
+
+    @Test
+    void testStore() {
+        DictionaryStore<String, String, String> store = new DictionaryStore<>();
+        assert store.version() == 0L;
+        assert store.nameOf("Red") == null;
+
+        DictionarySnapshot<String, String, String> first = store.publish(warningSigns);
+        assert first.version() == 1L;
+        assert store.nameOf("Red").equals("红色");
+        assert store.descOf("Green").equals("#997766");
+
+        WarningSign blue = new WarningSign();
+        blue.setCode("Blue");
+        blue.setName("蓝色");
+        store.publish(Collections.singletonList(blue));
+        assert store.version() == 2L;
+        assert store.nameOf("Red") == null;
+        assert store.descOf("Blue") == null;
+        assert first.nameOf("Red").equals("红色");
+
+        warningSigns.add(warningSigns.get(0));
+        assertThrows(IllegalArgumentException.class, () -> store.publish(warningSigns));
+        assert store.version() == 2L;
+    }
+
+
+    @Test
+    void testDelta() {
+        DictionaryStore<String, String, String> store = new DictionaryStore<>(2);
+        DictionarySnapshot<String, String, String> first = store.publish(warningSigns);
+        String firstTag = first.contentTag();
+        assert firstTag.length() == 16;
+        assert store.deltaSince(firstTag).isEmpty();
+
+        WarningSign blue = new WarningSign();
+        blue.setCode("Blue");
+        blue.setName("蓝色");
+        warningSigns.get(0).setDesc("#ff0000");
+        warningSigns.remove(1);
+        warningSigns.add(blue);
+        DictionarySnapshot<String, String, String> second = store.publish(warningSigns);
+        assert !second.contentTag().equals(firstTag);
+
+        DictionaryDelta<String, String, String> delta = store.deltaSince(firstTag);
+        assert delta.getAdded().size() == 1 && delta.getAdded().get(0).getCode().equals("Blue");
+        assert delta.getRemoved().equals(Collections.singletonList("Green"));
+        assert delta.getChanged().size() == 1 && delta.getChanged().get(0).getDesc().equals("#ff0000");
+        assert delta.applyTo(first, 3L).contentTag().equals(second.contentTag());
+        assertThrows(IllegalArgumentException.class, () -> delta.applyTo(second, 3L));
+
+        Collections.reverse(warningSigns);
+        assert store.publish(warningSigns).contentTag().equals(second.contentTag());
+        assert store.deltaSince(firstTag) == null;
+    }
+
 }
@@ -16,20 +16,67 @@
 
 package com.yizlan.gelato.canonical;
 
+import com.yizlan.gelato.canonical.dictionary.BiDictionary;
 import com.yizlan.gelato.canonical.dictionary.Gender;
 import com.yizlan.gelato.canonical.dictionary.TerDictionary;
 import com.yizlan.gelato.canonical.dictionary.WarningSign;
 import com.yizlan.gelato.canonical.enums.BiEnum;
 import com.yizlan.gelato.canonical.enums.GenderEnum;
+import com.yizlan.gelato.canonical.enums.HttpStatusEnum;
+import com.yizlan.gelato.canonical.enums.LocalizedEnumLabels;
 import com.yizlan.gelato.canonical.enums.TerEnum;
 import com.yizlan.gelato.canonical.enums.UnaryEnum;
+import com.yizlan.gelato.canonical.enums.ValueEquivalence;
 import com.yizlan.gelato.canonical.enums.WarningSignEnum;
+import com.yizlan.gelato.canonical.enums.WhetherEnum;
 import com.yizlan.gelato.canonical.protocol.ApiResult;
+import com.yizlan.gelato.canonical.registry.EnumDictionaryRegistry;
+import com.yizlan.gelato.canonical.util.CacheStats;
+import com.yizlan.gelato.canonical.util.DictionaryJson;
+import com.yizlan.gelato.canonical.util.EnumBitmaskCodec;
+import com.yizlan.gelato.canonical.util.EnumLookup;
 import com.yizlan.gelato.canonical.util.EnumUtils;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Enumeration;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class EnumTest {
 
@@ -45,6 +92,349 @@ public class EnumTest {
         assert null == empty;
     }
 
+    @Test
+    void testEnumIndex() {
+        assert WarningSignEnum.getEnumByValue("green") == WarningSignEnum.GREEN;
+        assert WarningSignEnum.getEnumByValue("Green") == WarningSignEnum.GREEN;
+        assert WarningSignEnum.getEnumByValue("BLUE") == null;
+        assert EnumUtils.getEnumByValueIgnoreCase(WarningSignEnum.class, new StringBuilder("yElLoW"))
+                == WarningSignEnum.YELLOW;
+        assert EnumUtils.getEnumByValueIgnoreCase(WarningSignEnum.class, "GREE") == null;
+        assert !EnumUtils.getEnumByValueOpt(GenderEnum.class, 3).isPresent();
+
+        Map<String, List<WarningSignEnum>> duplicates = EnumUtils.getDuplicateValues(WarningSignEnum.class);
+        assert duplicates.size() == 1;
+        assert duplicates.get("GREEN").equals(Arrays.asList(WarningSignEnum.GREEN, WarningSignEnum.GREEN1));
+        assert EnumUtils.getDuplicateValues(GenderEnum.class).isEmpty();
+    }
+
+    @Test
+    void testDuplicateWarning() {
+        List<LogRecord> records = new ArrayList<>();
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                records.add(record);
+            }
+
+            @Override
+            public void flush() {
+                // to do nothing
+            }
+
+            @Override
+            public void close() {
+                // to do nothing
+            }
+        };
+        Logger logger = Logger.getLogger("com.yizlan.gelato.canonical.util.EnumIndex");
+        logger.addHandler(handler);
+        try {
+            assert EnumUtils.getEnumByValue(ShadowedEnum.class, "A") == ShadowedEnum.FIRST;
+            assert EnumUtils.getDuplicateValues(WarningSignEnum.class).size() == 1;
+            assert EnumUtils.getEnumByValue(TrimmedEnum.class, "A") == TrimmedEnum.FIRST;
+        } finally {
+            logger.removeHandler(handler);
+        }
+        // WarningSignEnum allows its duplicates
+        assert records.size() == 2 && records.get(0).getLevel() == Level.WARNING;
+        assert records.get(0).getParameters()[0].equals(ShadowedEnum.class.getName());
+        // TrimmedEnum is looked up by a scan, since it overrides valueEquals
+        assert records.get(1).getParameters()[0].equals(TrimmedEnum.class.getName());
+    }
+
+    private enum TrimmedEnum implements UnaryEnum<String> {
+        FIRST("A"), SECOND(" A ");
+
+        private final String value;
+
+        TrimmedEnum(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public String getValue() {
+            return value;
+        }
+
+        @Override
+        public boolean valueEquals(String enumValue) {
+            return enumValue != null && value.trim().equals(enumValue.trim());
+        }
+    }
+
+    private enum ShadowedEnum implements UnaryEnum<String> {
+        FIRST("A"), SECOND("A");
+
+        private final String value;
+
+        ShadowedEnum(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public String getValue() {
+            return value;
+        }
+    }
+
+    @Test
+    void testPrimitiveValue() {
+        assert EnumUtils.getEnumByIntValue(GenderEnum.class, 1) == GenderEnum.MAN;
+        assert EnumUtils.getEnumByIntValue(GenderEnum.class, 2) == GenderEnum.WOMAN;
+        assert EnumUtils.getEnumByIntValue(GenderEnum.class, 0) == null;
+
+        assert HttpStatusEnum.getEnumByValue(404L) == HttpStatusEnum.NOT_FOUND;
+        assert HttpStatusEnum.getEnumByValue(100000000000L) == HttpStatusEnum.TIMEOUT;
+        assert HttpStatusEnum.getEnumByValue(403L) == null;
+        assert EnumUtils.getEnumByValue(HttpStatusEnum.class, 500L) == HttpStatusEnum.ERROR;
+    }
+
+    @Test
+    void testValueEquivalence() {
+        assert EnumUtils.getEnumByIntValue(HttpStatusEnum.class, 200) == HttpStatusEnum.OK;
+        assert ValueEquivalence.NUMERIC_WIDENING.equivalent(1L, 1);
+        assert !ValueEquivalence.EXACT.equivalent(1L, 1);
+
+        assert WhetherEnum.getEnumByValue("YES") == WhetherEnum.YES;
+        assert WhetherEnum.getEnumByValue("yes") == null;
+        assert !WhetherEnum.YES.valueEquals("yes");
+        assert WarningSignEnum.RED.valueEquals("red");
+        assert !WarningSignEnum.NULL.valueEquals("red");
+    }
+
+    @Test
+    void testCompiledLookup() throws ClassNotFoundException {
+        assert EnumLookup.class.isAssignableFrom(Class.forName(HttpStatusEnum.class.getName() + "$$Lookup"));
+        assert EnumLookup.generated(GenderEnum.class) == null;
+
+        EnumLookup<WarningSignEnum> lookup = EnumLookup.generated(WarningSignEnum.class);
+        assert lookup != null;
+        assert lookup.findExact("GREEN") == WarningSignEnum.GREEN;
+        assert lookup.findIgnoreCase("yellow") == WarningSignEnum.YELLOW;
+        assert lookup.findIgnoreCase("BLUE") == null;
+
+        assert WarningSignEnum.getEnumByValue("Red") == WarningSignEnum.RED;
+        assert WhetherEnum.getEnumByValue("NO") == WhetherEnum.NO;
+        assert EnumUtils.getEnumByIntValue(HttpStatusEnum.class, 404) == HttpStatusEnum.NOT_FOUND;
+        assert HttpStatusEnum.getEnumByValue(100000000000L) == HttpStatusEnum.TIMEOUT;
+    }
+
+    @Test
+    void testCompiledLookupEscapes(@TempDir Path tempDir) throws Exception {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        String constants = "NEWLINE(\"a\\nb\"), RETURN(\"a\\rb\"), TAB(\"a\\tb\"), BACKSPACE(\"a\\bb\"), "
+                + "FORM_FEED(\"a\\fb\"), QUOTE(\"a\\\"b\"), BACKSLASH(\"a\\\\b\"), NUL(\"\\0001\"), "
+                + "BELL(\"a\\007b\"), DELETE(\"a\\177b\"), CHINESE(\"\\u7537\")";
+        assert compileEnum(tempDir, "EscapedEnum", "", constants, diagnostics) : diagnostics.getDiagnostics();
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{tempDir.resolve("classes").toUri().toURL()},
+                EnumTest.class.getClassLoader())) {
+            Class<?> type = Class.forName("sample.EscapedEnum", true, loader);
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            EnumLookup<?> lookup = EnumLookup.generated((Class) type);
+            assert lookup != null;
+            for (Object constant : type.getEnumConstants()) {
+                assert lookup.findExact(((UnaryEnum<?>) constant).getValue()) == constant : constant;
+            }
+            assert lookup.findExact("\0" + "1") == type.getEnumConstants()[7];
+        }
+    }
+
+    @Test
+    void testCompiledLookupDuplicates(@TempDir Path tempDir) throws IOException {
+        DiagnosticCollector<JavaFileObject> duplicates = new DiagnosticCollector<>();
+        assert !compileEnum(tempDir, "DuplicateEnum", "", "FIRST(\"A\"), SECOND(\"A\")", duplicates);
+        assert hasDiagnostic(duplicates, Diagnostic.Kind.ERROR, "Duplicate value A of SECOND");
+
+        DiagnosticCollector<JavaFileObject> allowed = new DiagnosticCollector<>();
+        assert compileEnum(tempDir, "AllowedEnum", "(allowDuplicates = true)", "FIRST(\"A\"), SECOND(\"A\")",
+                allowed) : allowed.getDiagnostics();
+        assert !hasDiagnostic(allowed, Diagnostic.Kind.ERROR, "Duplicate value");
+
+        DiagnosticCollector<JavaFileObject> similar = new DiagnosticCollector<>();
+        assert compileEnum(tempDir, "SimilarEnum", "", "LOWER(\"a\"), UPPER(\"A\")", similar);
+        assert hasDiagnostic(similar, Diagnostic.Kind.WARNING, "ignoring case");
+
+        DiagnosticCollector<JavaFileObject> allowedSimilar = new DiagnosticCollector<>();
+        assert compileEnum(tempDir, "AllowedSimilarEnum", "(allowDuplicates = true)", "LOWER(\"a\"), UPPER(\"A\")",
+                allowedSimilar);
+        assert !hasDiagnostic(allowedSimilar, Diagnostic.Kind.WARNING, "ignoring case");
+    }
+
+    @Test
+    void testCompiledLookupFallbacks(@TempDir Path tempDir) throws Exception {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        assert compileEnum(tempDir, "BodyEnum", "", "FIRST(\"A\") {\n"
+                + "        @Override\n        public String getValue() {\n            return \"B\";\n        }\n"
+                + "    }, SECOND(\"C\")", diagnostics) : diagnostics.getDiagnostics();
+        assert hasDiagnostic(diagnostics, Diagnostic.Kind.NOTE, "FIRST has a class body");
+        assert compileEnum(tempDir, "ReassignedEnum", "", "FIRST(\"a\")",
+                "this.value = value;\n        this.value = value.toUpperCase();", diagnostics);
+        assert compileEnum(tempDir, "SelfAssignedEnum", "", "FIRST(\" a \")",
+                "value = value;\n        this.value = value.trim();", diagnostics);
+        Path classes = tempDir.resolve("classes").resolve("sample");
+        for (String name : new String[]{"BodyEnum", "ReassignedEnum", "SelfAssignedEnum"}) {
+            assert Files.exists(classes.resolve(name + ".class"));
+            assert !Files.exists(classes.resolve(name + EnumLookup.GENERATED_SUFFIX + ".class")) : name;
+        }
+
+        // a stale lookup, which finds the first constant whatever the value
+        Path staleEnum = writeSource(tempDir, "StaleEnum",
+                enumSource("StaleEnum", "", "FIRST(\"A\"), SECOND(\"B\")", "this.value = value;"));
+        Path staleLookup = writeSource(tempDir, "StaleEnum$$Lookup", "package sample;\n\n"
+                + "import com.yizlan.gelato.canonical.util.EnumLookup;\n\n"
+                + "public final class StaleEnum$$Lookup implements EnumLookup<StaleEnum> {\n"
+                + "    public StaleEnum findExact(Object value) {\n        return StaleEnum.FIRST;\n    }\n"
+                + "    public StaleEnum findIgnoreCase(CharSequence text) {\n        return StaleEnum.FIRST;\n    }\n"
+                + "    public StaleEnum findInt(int value) {\n        return null;\n    }\n"
+                + "    public StaleEnum findLong(long value) {\n        return null;\n    }\n"
+                + "    public StaleEnum findIntegral(long value) {\n        return null;\n    }\n"
+                + "}\n");
+        assert compile(tempDir, diagnostics, false, staleEnum, staleLookup) : diagnostics.getDiagnostics();
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{tempDir.resolve("classes").toUri().toURL()},
+                EnumTest.class.getClassLoader())) {
+            Class<?> type = Class.forName("sample.StaleEnum", true, loader);
+            assert Class.forName("sample.StaleEnum" + EnumLookup.GENERATED_SUFFIX, false, loader) != null;
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            EnumLookup<?> lookup = EnumLookup.generated((Class) type);
+            assert lookup == null;
+        }
+    }
+
+    /**
+     * Compiles an enum of string values annotated with {@code @CompiledLookup}, with the annotation processor.
+     */
+    private static boolean compileEnum(Path dir, String name, String annotationArguments, String constants,
+                                       DiagnosticCollector<JavaFileObject> diagnostics) throws IOException {
+        return compileEnum(dir, name, annotationArguments, constants, "this.value = value;", diagnostics);
+    }
+
+    private static boolean compileEnum(Path dir, String name, String annotationArguments, String constants,
+                                       String constructorBody, DiagnosticCollector<JavaFileObject> diagnostics)
+            throws IOException {
+        Path source = writeSource(dir, name, enumSource(name, annotationArguments, constants, constructorBody));
+        return compile(dir, diagnostics, true, source);
+    }
+
+    private static String enumSource(String name, String annotationArguments, String constants,
+                                     String constructorBody) {
+        return "package sample;\n\n"
+                + "import com.yizlan.gelato.canonical.annotations.CompiledLookup;\n"
+                + "import com.yizlan.gelato.canonical.enums.UnaryEnum;\n\n"
+                + "@CompiledLookup" + annotationArguments + "\n"
+                + "public enum " + name + " implements UnaryEnum<String> {\n"
+                + "    " + constants + ";\n\n"
+                + "    private String value;\n\n"
+                + "    " + name + "(String value) {\n        " + constructorBody + "\n    }\n\n"
+                + "    @Override\n    public String getValue() {\n        return value;\n    }\n\n"
+                + "}\n";
+    }
+
+    private static Path writeSource(Path dir, String name, String content) throws IOException {
+        Path source = dir.resolve("sources").resolve("sample").resolve(name + ".java");
+        Files.createDirectories(source.getParent());
+        return Files.write(source, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean compile(Path dir, DiagnosticCollector<JavaFileObject> diagnostics, boolean processing,
+                                   Path... sources) throws IOException {
+        Path classes = Files.createDirectories(dir.resolve("classes"));
+        String classPath;
+        try {
+            classPath = Paths.get(EnumLookup.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                    .toString();
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null,
+                StandardCharsets.UTF_8)) {
+            List<String> options = new ArrayList<>(Arrays.asList("-classpath", classPath, "-d", classes.toString()));
+            if (processing) {
+                options.add("-processor");
+                options.add("com.yizlan.gelato.canonical.processor.EnumLookupProcessor");
+            } else {
+                options.add("-proc:none");
+            }
+            List<File> files = new ArrayList<>();
+            for (Path source : sources) {
+                files.add(source.toFile());
+            }
+            return compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjectsFromFiles(files)).call();
+        }
+    }
+
+    private static boolean hasDiagnostic(DiagnosticCollector<JavaFileObject> diagnostics, Diagnostic.Kind kind,
+                                         String message) {
+        return diagnostics.getDiagnostics().stream()
+                .anyMatch(diagnostic -> diagnostic.getKind() == kind
+                        && diagnostic.getMessage(Locale.ROOT).contains(message));
+    }
+
+    @Test
+    void testDecodeAll() {
+        String[] values = {"RED", "blue", null, "green"};
+        WarningSignEnum[] out = new WarningSignEnum[values.length];
+        List<Integer> unknownIndexes = new ArrayList<>();
+        int unknown = EnumUtils.decodeAll(WarningSignEnum.class, values, out, (value, i) -> unknownIndexes.add(i));
+        assert unknown == 2;
+        assert unknownIndexes.equals(Arrays.asList(1, 2));
+        assert Arrays.equals(out, new WarningSignEnum[]{WarningSignEnum.RED, null, null, WarningSignEnum.GREEN});
+
+        List<GenderEnum> genders = EnumUtils.decodeAll(GenderEnum.class, Arrays.asList(2, 1, 3));
+        assert genders.equals(Arrays.asList(GenderEnum.WOMAN, GenderEnum.MAN, null));
+    }
+
+    @Test
+    void testBitmask() {
+        EnumBitmaskCodec<WarningSignEnum> codec = EnumBitmaskCodec.of(WarningSignEnum.class);
+        assert codec == EnumBitmaskCodec.of(WarningSignEnum.class);
+        assert codec.words() == 1;
+
+        long bits = codec.encode(EnumSet.of(WarningSignEnum.RED, WarningSignEnum.GREEN));
+        assert bits == 0b101L;
+        assert codec.decode(bits).equals(EnumSet.of(WarningSignEnum.RED, WarningSignEnum.GREEN));
+        assert codec.contains(bits, WarningSignEnum.GREEN);
+        assert !codec.contains(bits, WarningSignEnum.YELLOW);
+        assert EnumBitmaskCodec.containsAll(bits, codec.maskOf(WarningSignEnum.RED));
+        assert !EnumBitmaskCodec.containsAny(bits, codec.maskOf(WarningSignEnum.YELLOW));
+
+        EnumBitmaskCodec<HttpStatusEnum> wide = EnumBitmaskCodec.of(HttpStatusEnum.class,
+                item -> (int) (item.getValue() % 1000));
+        assert wide.words() == 8;
+        long[] words = wide.encodeWords(EnumSet.of(HttpStatusEnum.NOT_FOUND, HttpStatusEnum.TIMEOUT));
+        assert wide.contains(words, HttpStatusEnum.NOT_FOUND);
+        assert wide.decode(words).equals(EnumSet.of(HttpStatusEnum.NOT_FOUND, HttpStatusEnum.TIMEOUT));
+        assertThrows(IllegalStateException.class, () -> wide.encode(EnumSet.of(HttpStatusEnum.OK)));
+        assertThrows(IllegalStateException.class, () -> wide.decode(1L));
+    }
+
+    @Test
+    void testCacheStats() {
+        WarningSignEnum.getEnumByValue("RED");
+        EnumUtils.getEnumByLabel(GenderEnum.class, "女");
+
+        CacheStats stats = EnumUtils.getCacheStats();
+        assert stats.getClasses() >= 2;
+        assert stats.getEntries() >= WarningSignEnum.values().length + GenderEnum.values().length;
+        assert stats.getRetainedBytes() > 0;
+    }
+
+    @Test
+    void testLabelAndDesc() {
+        assert EnumUtils.getEnumByLabel(GenderEnum.class, "女") == GenderEnum.WOMAN;
+        assert EnumUtils.getEnumByLabel(WarningSignEnum.class, "#f5222d") == WarningSignEnum.RED;
+        assert EnumUtils.getEnumByLabel(WarningSignEnum.class, "#000000") == null;
+        assert EnumUtils.getEnumByDesc(WarningSignEnum.class, "黄色") == WarningSignEnum.YELLOW;
+        assert EnumUtils.getEnumByDesc(WarningSignEnum.class, "null1") == WarningSignEnum.NULL1;
+
+        assertThrows(IllegalArgumentException.class, () -> EnumUtils.getEnumByLabel(GenderEnum.class, "男"));
+        assertThrows(IllegalArgumentException.class, () -> EnumUtils.getEnumByDesc(WarningSignEnum.class, "绿色"));
+    }
+
     @Test
     void testToList() {
         BiEnum.toList(GenderEnum.values())
@@ -52,6 +442,14 @@ public class EnumTest {
                         item.getClass().getTypeName() + ", \n value：" + item.getCode() + "|____|" + item.getName())
                 );
 
+        List<BiDictionary<Integer, String>> entries = BiEnum.toList(GenderEnum.values());
+        entries.get(0).setName("X");
+        assert BiEnum.toList(GenderEnum.values()).size() == entries.size();
+        assert BiEnum.toList(new GenderEnum[0]).isEmpty();
+        List<BiDictionary<Integer, String>> interned = BiEnum.toInternedList(GenderEnum.values());
+        assert interned.size() == entries.size();
+        assertThrows(UnsupportedOperationException.class, () -> interned.get(0).setName("X"));
+
         List<Gender> genders = BiEnum.toList(GenderEnum.values(), Gender::new);
         genders.forEach(item -> System.out.println("convert BiEnum to Gender through BiDictionary1, " +
                 "class name:" + item.getClass().getTypeName() +
@@ -86,6 +484,206 @@ public class EnumTest {
                 .forEach(System.out::println);
     }
 
+    @Test
+    void testDictionaryOf() {
+        List<BiDictionary<Integer, String>> genders = BiEnum.dictionaryOf(GenderEnum.class);
+        assert genders == BiEnum.dictionaryOf(GenderEnum.class);
+        assert genders.size() == BiEnum.toInternedList(GenderEnum.values()).size();
+        assert Objects.equals(genders.get(0).getCode(), GenderEnum.values()[0].getValue());
+        assertThrows(UnsupportedOperationException.class, () -> genders.remove(0));
+        assertThrows(UnsupportedOperationException.class, () -> genders.get(0).setName("X"));
+        assert genders.get(0) == BiEnum.toInternedList(GenderEnum.values()).get(0);
+
+        List<TerDictionary<String, String, String>> warningSigns = TerEnum.dictionaryOf(WarningSignEnum.class);
+        assert warningSigns == TerEnum.dictionaryOf(WarningSignEnum.class);
+        assert warningSigns.equals(TerEnum.toList(WarningSignEnum.values()));
+        assertThrows(UnsupportedOperationException.class, () -> warningSigns.get(0).setDesc("X"));
+    }
+
+    @Test
+    void testLargeToList() {
+        GenderEnum[] genders = new GenderEnum[10000];
+        for (int i = 0; i < genders.length; i++) {
+            genders[i] = i % 7 == 0 ? null : GenderEnum.values()[(genders.length - i) % GenderEnum.values().length];
+        }
+        List<Gender> expected = BiEnum.toList(Arrays.copyOf(genders, 100), Gender::new, t -> "Gender" + t.getCode());
+        List<Gender> sequential = BiEnum.toList(genders, Gender::new, t -> "Gender" + t.getCode());
+        List<Gender> actual = BiEnum.toListInParallel(genders, Gender::new, t -> "Gender" + t.getCode());
+        assert actual.size() == expected.size();
+        assert sequential.size() == expected.size();
+        for (int i = 0; i < actual.size(); i++) {
+            assert Objects.equals(actual.get(i).getCode(), expected.get(i).getCode());
+            assert Objects.equals(actual.get(i).getName(), expected.get(i).getName());
+            assert Objects.equals(sequential.get(i).getCode(), expected.get(i).getCode());
+        }
+
+        Thread caller = Thread.currentThread();
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        BiEnum.toList(genders, () -> {
+            threads.add(Thread.currentThread());
+            return new Gender();
+        }, Object::toString);
+        assert threads.equals(Collections.singleton(caller));
+
+        WarningSignEnum[] warningSigns = new WarningSignEnum[10000];
+        Arrays.fill(warningSigns, WarningSignEnum.YELLOW);
+        warningSigns[5000] = WarningSignEnum.RED;
+        assert TerEnum.toList(warningSigns).equals(TerEnum.toList(
+                new WarningSignEnum[]{WarningSignEnum.YELLOW, WarningSignEnum.RED}));
+        assert TerEnum.toListInParallel(warningSigns, WarningSign::new, WarningSign::getCode).size() == 2;
+    }
+
+    @Test
+    void testDictionaryView() {
+        List<BiDictionary<Integer, String>> genders = BiEnum.dictionaryView(GenderEnum.class);
+        assert genders == BiEnum.dictionaryView(GenderEnum.class);
+        assert genders.size() == GenderEnum.values().length;
+        assert genders.get(0) == BiEnum.dictionaryView(GenderEnum.class).get(0);
+        assert Objects.equals(genders.get(1).getName(), GenderEnum.values()[1].getLabel());
+        assertThrows(UnsupportedOperationException.class, () -> genders.get(0).setCode(3));
+        assertThrows(UnsupportedOperationException.class, () -> genders.set(0, null));
+
+        List<TerDictionary<String, String, String>> warningSigns = TerEnum.dictionaryView(WarningSignEnum.class);
+        assert warningSigns.size() == WarningSignEnum.values().length;
+        assert warningSigns.get(2).equals(warningSigns.get(3));
+        assert TerEnum.dictionaryOf(WarningSignEnum.class).get(0) == warningSigns.get(0);
+    }
+
+    @Test
+    void testDictionaryJson() {
+        String json = new String(DictionaryJson.DEFAULT.toByteArray(WhetherEnum.class), StandardCharsets.UTF_8);
+        assert json.equals("[{\"code\":\"YES\",\"name\":\"是\"},{\"code\":\"NO\",\"name\":\"否\"}]");
+
+        ByteBuffer bytes = DictionaryJson.DEFAULT.bytesOf(HttpStatusEnum.class);
+        assert bytes.isReadOnly();
+        assert bytes.remaining() == DictionaryJson.DEFAULT.bytesOf(HttpStatusEnum.class).remaining();
+        assert DictionaryJson.DEFAULT.toJson(BiEnum.dictionaryOf(HttpStatusEnum.class))
+                .startsWith("[{\"code\":200,\"name\":\"OK\"}");
+
+        DictionaryJson layout = DictionaryJson.of("value", "label", "color");
+        assert layout.toJson(TerEnum.dictionaryOf(WarningSignEnum.class))
+                .startsWith("[{\"value\":\"RED\",\"label\":\"#f5222d\",\"color\":\"红色\"}");
+        assert layout.toJson(TerEnum.dictionaryOf(WarningSignEnum.class)).endsWith("\"label\":null,\"color\":\"null1\"}]");
+        assert layout.getCacheStats().getClasses() == 0;
+    }
+
+    @Test
+    void testRegistry(@TempDir Path tempDir) throws IOException {
+        EnumDictionaryRegistry registry = EnumDictionaryRegistry.scan(EnumTest.class.getClassLoader(),
+                "com.yizlan.gelato.canonical.enums");
+        assert registry.typeKeys().equals(new TreeSet<>(Arrays.asList("gender", "httpStatus", "warningSign",
+                "whether")));
+        assert registry.get("warningSign") == TerEnum.dictionaryOf(WarningSignEnum.class);
+        assert registry.typeOf("gender") == GenderEnum.class;
+        assert registry.get("blue") == null;
+
+        String entry = "com/yizlan/gelato/canonical/enums/GenderEnum.class";
+        Path jar = tempDir.resolve("enums.jar");
+        try (InputStream in = EnumTest.class.getClassLoader().getResourceAsStream(entry);
+             JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            for (int i = entry.indexOf('/'); i > 0; i = entry.indexOf('/', i + 1)) {
+                out.putNextEntry(new JarEntry(entry.substring(0, i + 1)));
+            }
+            out.putNextEntry(new JarEntry(entry));
+            byte[] buffer = new byte[4096];
+            for (int read; (read = Objects.requireNonNull(in).read(buffer)) > 0; ) {
+                out.write(buffer, 0, read);
+            }
+        }
+        // only the jar is visible to the scan
+        ClassLoader parent = new ClassLoader(EnumTest.class.getClassLoader()) {
+            @Override
+            public Enumeration<URL> getResources(String name) {
+                return Collections.emptyEnumeration();
+            }
+        };
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{jar.toUri().toURL()}, parent)) {
+            EnumDictionaryRegistry jarRegistry = EnumDictionaryRegistry.scan(classLoader, "com.yizlan.gelato");
+            assert jarRegistry.size() == 1;
+            assert jarRegistry.get("gender") == BiEnum.dictionaryOf(GenderEnum.class);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> EnumDictionaryRegistry.of(
+                Arrays.asList(GenderEnum.class, com.yizlan.gelato.canonical.dictionary.Gender.class)));
+
+        // the enums of the same simple name in different packages
+        assertThrows(IllegalArgumentException.class, () -> EnumDictionaryRegistry.of(
+                Arrays.asList(GenderEnum.class, Legacy.GenderEnum.class)));
+        assert EnumDictionaryRegistry.of(Arrays.asList(GenderEnum.class, Legacy.GenderEnum.class), Class::getName)
+                .typeOf(Legacy.GenderEnum.class.getName()) == Legacy.GenderEnum.class;
+        // the scan reports the collision, and registers the first one in the order of class names
+        EnumDictionaryRegistry collided = EnumDictionaryRegistry.scan(EnumTest.class.getClassLoader(),
+                "com.yizlan.gelato.canonical");
+        assert collided.typeOf("gender") == Legacy.GenderEnum.class;
+        String prefix = "com.yizlan.gelato.canonical.";
+        EnumDictionaryRegistry qualified = EnumDictionaryRegistry.scan(EnumTest.class.getClassLoader(),
+                type -> type.getName().substring(prefix.length()), "com.yizlan.gelato.canonical");
+        assert qualified.typeOf("enums.GenderEnum") == GenderEnum.class;
+        assert qualified.typeOf("EnumTest$Legacy$GenderEnum") == Legacy.GenderEnum.class;
+    }
+
+    private static final class Legacy {
+
+        private enum GenderEnum implements BiEnum<Integer, String> {
+            MAN(1, "man"), WOMAN(2, "woman");
+
+            private final Integer value;
+
+            private final String label;
+
+            GenderEnum(Integer value, String label) {
+                this.value = value;
+                this.label = label;
+            }
+
+            @Override
+            public Integer getValue() {
+                return value;
+            }
+
+            @Override
+            public String getLabel() {
+                return label;
+            }
+        }
+
+    }
+
+    @Test
+    void testLocalizedLabels() {
+        int[] resolutions = new int[1];
+        LocalizedEnumLabels labels = LocalizedEnumLabels.of(
+                (constant, locale) -> {
+                    resolutions[0]++;
+                    return constant.name().toLowerCase(locale) + "@" + locale;
+                },
+                (constant, locale) -> ((WarningSignEnum) constant).getDesc() + "@" + locale);
+
+        assert labels.labelOf(GenderEnum.MAN, Locale.ENGLISH).equals("man@en");
+        assert labels.toMap(GenderEnum.class, Locale.ENGLISH).get(2).equals("woman@en");
+        assert labels.toList(GenderEnum.class, Locale.ENGLISH) == labels.toList(GenderEnum.class, Locale.ENGLISH);
+        assert resolutions[0] == GenderEnum.values().length;
+        assert labels.toList(GenderEnum.class, Locale.ENGLISH).size() == GenderEnum.values().length;
+
+        List<TerDictionary<String, String, String>> signs = labels.toTerList(WarningSignEnum.class, Locale.CHINESE);
+        assert signs.size() == WarningSignEnum.values().length;
+        assert signs.get(0).getName().equals("red@zh") && signs.get(0).getDesc().equals("红色@zh");
+        assert labels.descOf(WarningSignEnum.GREEN, Locale.ENGLISH).equals("绿色@en");
+        assert labels.toDescMap(WarningSignEnum.class, Locale.CHINESE).get("RED").equals("红色@zh");
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Class<WarningSignEnum> notTerEnum = (Class) GenderEnum.class;
+        assertThrows(IllegalArgumentException.class, () -> labels.toDescMap(notTerEnum, Locale.ENGLISH));
+
+        int resolved = resolutions[0];
+        labels.clear();
+        labels.labelOf(GenderEnum.MAN, Locale.ENGLISH);
+        assert resolutions[0] == resolved + GenderEnum.values().length;
+
+        LocalizedEnumLabels defaults = LocalizedEnumLabels.ofBundle("com.yizlan.gelato.canonical.missing");
+        assert defaults.labelOf(GenderEnum.MAN, Locale.ENGLISH).equals("男");
+        assert defaults.toMap(WarningSignEnum.class, Locale.ENGLISH).equals(BiEnum.toMap(WarningSignEnum.values()));
+    }
+
     @Test
     void testToMap() {
         BiEnum.toMap(WarningSignEnum.values())
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.dictionary;
+
+import java.util.Objects;
+
+public class Region implements TreeDictionary<String, String> {
+
+    private String code;
+
+    private String name;
+
+    private String parentCode;
+
+    public Region() {
+        // to do nothing
+    }
+
+    public Region(String code, String name, String parentCode) {
+        this.code = code;
+        this.name = name;
+        this.parentCode = parentCode;
+    }
+
+    @Override
+    public String getCode() {
+        return code;
+    }
+
+    @Override
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getParentCode() {
+        return parentCode;
+    }
+
+    @Override
+    public void setParentCode(String parentCode) {
+        this.parentCode = parentCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        Region that = (Region) obj;
+        return Objects.equals(code, that.code) && Objects.equals(name, that.name)
+                && Objects.equals(parentCode, that.parentCode);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(code, name, parentCode);
+    }
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yizlan.gelato.canonical.enums;
+
+import com.yizlan.gelato.canonical.annotations.CompiledLookup;
+import com.yizlan.gelato.canonical.util.EnumUtils;
+
+@CompiledLookup
+public enum HttpStatusEnum implements BiEnum<Long, String> {
+    OK(200L, "OK"), NOT_FOUND(404L, "Not Found"),
+    ERROR(500L, "Internal Server Error"), TIMEOUT(100000000000L, "Timeout");
+
+    private final Long value;
+
+    private final String label;
+
+    HttpStatusEnum(Long value, String label) {
+        this.value = value;
+        this.label = label;
+    }
+
+    @Override
+    public Long getValue() {
+        return value;
+    }
+
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    @Override
+    public ValueEquivalence valueEquivalence() {
+        return ValueEquivalence.NUMERIC_WIDENING;
+    }
+
+    public static HttpStatusEnum getEnumByValue(long value) {
+        return EnumUtils.getEnumByLongValue(HttpStatusEnum.class, value);
+    }
+
+}
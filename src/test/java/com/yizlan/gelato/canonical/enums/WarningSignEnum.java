@@ -1,7 +1,9 @@
 package com.yizlan.gelato.canonical.enums;
 
+import com.yizlan.gelato.canonical.annotations.CompiledLookup;
 import com.yizlan.gelato.canonical.util.EnumUtils;
 
+@CompiledLookup(allowDuplicates = true)
 public enum WarningSignEnum implements TernaryEnum<String> {
     // 红色
     RED("RED", "#f5222d", "红色"),
@@ -16,8 +16,10 @@
 
 package com.yizlan.gelato.canonical.enums;
 
+import com.yizlan.gelato.canonical.annotations.CompiledLookup;
 import com.yizlan.gelato.canonical.util.EnumUtils;
 
+@CompiledLookup
 public enum WhetherEnum implements BinaryEnum<String> {
     YES("YES", "是"), NO("NO", "否");
 
@@ -40,6 +42,11 @@ public enum WhetherEnum implements BinaryEnum<String> {
         return label;
     }
 
+    @Override
+    public ValueEquivalence valueEquivalence() {
+        return ValueEquivalence.EXACT;
+    }
+
     public static WhetherEnum getEnumByValue(String code){
         return EnumUtils.getEnumByValue(WhetherEnum.class, code);
     }